@@ -0,0 +1,251 @@
+package com.td.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.game.GameContext;
+import com.td.game.GameManager;
+import com.td.game.GameSession;
+import com.td.game.domain.GameMap;
+import com.td.game.domain.GameParams;
+import com.td.game.domain.PathPoint;
+import com.td.game.domain.Player;
+import com.td.game.domain.PlayerClass;
+import com.td.game.domain.Point;
+import com.td.game.domain.Wave;
+import com.td.game.gameobjects.Monster;
+import com.td.game.gameobjects.Path;
+import com.td.game.resource.ResourceFactory;
+import com.td.game.resource.ResourceSnapshot;
+import com.td.game.services.GameContextService;
+import com.td.game.services.GameInitService;
+import com.td.game.services.GameSessionService;
+import com.td.game.services.MatchmakingService;
+import com.td.game.services.MatchmakingSettings;
+import com.td.game.services.MonsterWaveGenerator;
+import com.td.game.services.MonsterWaveProcessorService;
+import com.td.game.services.PathGenerateService;
+import com.td.game.services.ServerSnaphotService;
+import com.td.game.services.SessionStepService;
+import com.td.game.services.StaticMapLayerService;
+import com.td.game.services.TowerManager;
+import com.td.game.services.TowerShootingService;
+import com.td.websocket.BinaryMessageCodec;
+import com.td.websocket.JsonMessageCodec;
+import com.td.websocket.MessageCodec;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Game sessions built straight from the game resources, without Spring, database or sockets.
+ * Monsters are spread along the path and can not be killed, so the running population only shrinks
+ * through arrivals; {@link #refillIfDrained()} puts a fresh wave in place once it has halved.
+ */
+final class BenchFixture {
+
+    static final long TICK = GameContext.DEFAULT_TICK_PERIOD;
+
+    private static final long SEED = 42;
+    private static final int STURDY_HP = Integer.MAX_VALUE / 2;
+    private static final long BENCH_MONEY = Long.MAX_VALUE / 2;
+    private static final int PLAYERS_PER_SESSION = 2;
+    private static final int KEYFRAME_INTERVAL = 20;
+    private static final String MAP_RESOURCE = "GameMap.json";
+    private static final String MONSTERS_LIST = "monsters/MonstersList.json";
+    private static final String GAME_PARAMS = "gameParams/GameParams_2.json";
+    private static final String PLAYER_CLASS = "Adventurer";
+
+    private final ResourceFactory resourceFactory;
+    private final BenchTransport transport;
+    private final MonsterWaveProcessorService waveProcessor;
+    private final TowerShootingService towerShootingService = new TowerShootingService();
+    private final ServerSnaphotService snapshotService;
+    private final SessionStepService stepService;
+    private final GameManager gameManager;
+    private final GameContext context = new GameContext(TICK);
+    private final List<GameSession> sessions = new ArrayList<>();
+    private final int monsters;
+    private final Random random = new Random(SEED);
+    private long time;
+    private long nextPlayerId;
+
+    /**
+     * @param codec codec to encode the state messages with, they are dropped when it is null
+     * @param acknowledgeKeyframes players acknowledge every keyframe and then receive deltas
+     */
+    BenchFixture(int sessionsCount, int towers, int monsters, String execution,
+                 @Nullable MessageCodec codec, boolean acknowledgeKeyframes) {
+        this.monsters = monsters;
+        final ObjectMapper mapper = new ObjectMapper();
+        this.resourceFactory = new ResourceFactory(mapper, "");
+        resourceFactory.init();
+        this.transport = new BenchTransport(codec, acknowledgeKeyframes);
+
+        final MonsterWaveGenerator waveGenerator = new MonsterWaveGenerator();
+        this.waveProcessor = new MonsterWaveProcessorService(waveGenerator);
+        waveProcessor.init();
+        final PathGenerateService pathGenerator = new PathGenerateService();
+        final GameInitService gameInitService = new GameInitService(transport, resourceFactory, pathGenerator,
+                waveGenerator, new StaticMapLayerService(mapper, pathGenerator));
+        final GameSessionService gameSessionService = new GameSessionService(transport, null,
+                gameInitService, new GameContextService());
+        this.snapshotService = new ServerSnaphotService(transport, KEYFRAME_INTERVAL);
+        this.stepService = new SessionStepService(gameSessionService, snapshotService, waveProcessor,
+                towerShootingService, execution);
+        final TowerManager towerManager = new TowerManager();
+        this.gameManager = new GameManager(gameSessionService, towerManager, stepService,
+                new MatchmakingService(null, null, transport, gameSessionService,
+                        new MatchmakingSettings(1, 2, 1, 1, 1)));
+
+        final ResourceSnapshot resources = resourceFactory.getSnapshot();
+        for (int i = 0; i < sessionsCount; ++i) {
+            final GameSession session = createSession(resources);
+            placeTowers(session, towerManager, towers);
+            sessions.add(session);
+            context.addSession(session);
+        }
+    }
+
+    static MessageCodec codec(String name) {
+        final JsonMessageCodec json = new JsonMessageCodec(new ObjectMapper());
+        return "binary".equals(name) ? new BinaryMessageCodec(json) : json;
+    }
+
+    GameManager getGameManager() {
+        return gameManager;
+    }
+
+    GameContext getContext() {
+        return context;
+    }
+
+    List<GameSession> getSessions() {
+        return sessions;
+    }
+
+    MonsterWaveProcessorService getWaveProcessor() {
+        return waveProcessor;
+    }
+
+    TowerShootingService getTowerShootingService() {
+        return towerShootingService;
+    }
+
+    ServerSnaphotService getSnapshotService() {
+        return snapshotService;
+    }
+
+    BenchTransport getTransport() {
+        return transport;
+    }
+
+    long nextTime() {
+        time += TICK;
+        return time;
+    }
+
+    void refillIfDrained() {
+        for (GameSession session : sessions) {
+            final Wave wave = session.getCurrentWave();
+            if (wave.getStatus() != Wave.WaveStatus.RUNNING || wave.getRunning().size() < monsters / 2) {
+                session.setCurrentWave(spreadWave(session.getPaths(), session.getResources()));
+            }
+            session.setHp(STURDY_HP);
+        }
+    }
+
+    void shutdown() {
+        stepService.shutdown();
+        transport.shutdown();
+    }
+
+    private GameSession createSession(ResourceSnapshot resources) {
+        final GameMap map = new GameMap(resources.loadResource(MAP_RESOURCE, GameMap.GameMapResource.class));
+        final List<Path> paths = Collections.singletonList(new PathGenerateService().generatePath(resources));
+        map.setPathTiles(paths.get(0).getPathPoints());
+
+        final PlayerClass playerClass = resources.loadResource(PLAYER_CLASS + ".json", PlayerClass.class);
+        final List<Player> players = new ArrayList<>();
+        final Map<Long, PlayerClass> classes = new HashMap<>();
+        for (int i = 0; i < PLAYERS_PER_SESSION; ++i) {
+            final Player player = new Player(nextPlayerId, PLAYER_CLASS, "bench" + nextPlayerId);
+            ++nextPlayerId;
+            players.add(player);
+            classes.put(player.getId(), playerClass);
+        }
+
+        final GameSession session = new GameSession(players, classes, map, spreadWave(paths, resources), paths,
+                resources.loadResource(GAME_PARAMS, GameParams.class), resources);
+        session.setHp(STURDY_HP);
+        for (Player player : players) {
+            player.setMoney(BENCH_MONEY);
+            transport.register(player.getId(), session);
+        }
+        return session;
+    }
+
+    /**
+     * Places the towers on the free tiles next to the path, walking it from the start.
+     */
+    private void placeTowers(GameSession session, TowerManager towerManager, int towers) {
+        final List<PathPoint> points = session.getPaths().get(0).getPathPoints();
+        final Set<Point<Long>> pathTiles = new HashSet<>();
+        for (PathPoint point : points) {
+            pathTiles.add(point.getTileCoord());
+        }
+        final List<Player> players = session.getPlayers();
+        final int[][] neighbours = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (PathPoint point : points) {
+            for (int[] neighbour : neighbours) {
+                if (session.getTowers().size() >= towers) {
+                    return;
+                }
+                final long xcoord = point.getTileCoord().getXcoord() + neighbour[0];
+                final long ycoord = point.getTileCoord().getYcoord() + neighbour[1];
+                if (pathTiles.contains(new Point<>(xcoord, ycoord)) || !session.getGameMap().isTileFree(xcoord, ycoord)) {
+                    continue;
+                }
+                final Player owner = players.get(session.getTowers().size() % players.size());
+                final List<Integer> available = session.getPlayersClasses().get(owner.getId()).getAvailableTowers();
+                final Integer towerClass = available.get(session.getTowers().size() % available.size());
+                towerManager.processOrder(session, new TowerManager.TowerOrder(xcoord, ycoord, towerClass, owner.getId()));
+            }
+        }
+    }
+
+    /**
+     * Wave with every monster already running, evenly spread over the path before its finish tile.
+     */
+    private Wave spreadWave(List<Path> paths, ResourceSnapshot resources) {
+        final Path path = paths.get(0);
+        final List<PathPoint> points = path.getPathPoints();
+        int usable = 0;
+        while (usable < points.size() && !points.get(usable).getTileCoord().equals(path.getLastPoint().getTileCoord())) {
+            ++usable;
+        }
+
+        final List<Monster.MonsterResource> available = resources.loadResourceList(MONSTERS_LIST, Monster.MonsterResource.class);
+        final List<Monster> waveMonsters = new ArrayList<>(monsters);
+        for (int i = 0; i < monsters; ++i) {
+            final Monster monster = new Monster(available.get(random.nextInt(available.size())));
+            monster.setHp(STURDY_HP);
+            monster.setCoord(points.get((int) ((long) i * usable / monsters)));
+            waveMonsters.add(monster);
+        }
+        final Map<Path, List<Monster>> bindings = new HashMap<>();
+        bindings.put(path, waveMonsters);
+
+        final Wave wave = new Wave(waveMonsters, paths, bindings, 0, 0);
+        wave.updatePendingTime(0);
+        for (int i = 0; i < monsters; ++i) {
+            wave.pollMonster(0);
+        }
+        return wave;
+    }
+}
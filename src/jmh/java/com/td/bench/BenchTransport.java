@@ -0,0 +1,70 @@
+package com.td.bench;
+
+import com.td.game.GameSession;
+import com.td.game.snapshots.ServerSnap;
+import com.td.websocket.Message;
+import com.td.websocket.MessageCodec;
+import com.td.websocket.SharedMessage;
+import com.td.websocket.TransportService;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.web.socket.CloseStatus;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transport without sockets. Every registered player counts as connected, state messages are either dropped
+ * or encoded right away on the calling thread, so that the encoding cost ends up in the measurement.
+ */
+final class BenchTransport extends TransportService {
+
+    private final Map<Long, GameSession> players = new HashMap<>();
+    @Nullable
+    private final MessageCodec codec;
+    private final boolean acknowledgeKeyframes;
+
+    private SharedMessage lastEncoded;
+    private long encodedBytes;
+
+    BenchTransport(@Nullable MessageCodec codec, boolean acknowledgeKeyframes) {
+        super(1, 1, 1, 0);
+        this.codec = codec;
+        this.acknowledgeKeyframes = acknowledgeKeyframes;
+    }
+
+    void register(Long playerId, GameSession session) {
+        players.put(playerId, session);
+    }
+
+    long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    @Override
+    public boolean isConnected(Long id) {
+        return players.containsKey(id);
+    }
+
+    @Override
+    public void sendMessageToUser(Long id, Message message) {
+    }
+
+    @Override
+    public void sendStateToUser(Long id, SharedMessage message) throws IOException {
+        if (codec != null && message != lastEncoded) {
+            encodedBytes += codec.encode(message.getMessage()).getPayloadLength();
+            lastEncoded = message;
+        }
+        if (acknowledgeKeyframes && message.getMessage() instanceof ServerSnap) {
+            final Long frame = ((ServerSnap) message.getMessage()).getFrame();
+            if (frame != null) {
+                players.get(id).getSnapshotHistory().acknowledge(id, frame);
+            }
+        }
+    }
+
+    @Override
+    public void closeSession(Long id, CloseStatus status) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.td.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole tick of a game context: tower orders, session steps and snapshot building.
+ * State messages are dropped by the transport, their encoding runs on the I/O threads in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStepBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int sessions;
+
+    @Param({"4", "32"})
+    public int towers;
+
+    @Param({"16", "128"})
+    public int monsters;
+
+    @Param({"sequential", "parallel"})
+    public String execution;
+
+    private BenchFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchFixture(sessions, towers, monsters, execution, null, false);
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        fixture.refillIfDrained();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Benchmark
+    public void gameStep() {
+        fixture.getGameManager().gameStep(fixture.nextTime(), fixture.getContext());
+    }
+}
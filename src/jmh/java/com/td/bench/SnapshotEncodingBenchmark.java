@@ -0,0 +1,72 @@
+package com.td.bench;
+
+import com.td.game.GameSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and encoding the per-tick state of a session. With delta enabled the players acknowledge
+ * every keyframe, so most ticks send a delta against it. Monsters move between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotEncodingBenchmark {
+
+    @Param({"4", "32"})
+    public int towers;
+
+    @Param({"16", "128", "1024"})
+    public int monsters;
+
+    @Param({"json", "binary"})
+    public String codec;
+
+    @Param({"false", "true"})
+    public boolean delta;
+
+    private BenchFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchFixture(1, towers, monsters, "sequential", BenchFixture.codec(codec), delta);
+    }
+
+    @Setup(Level.Invocation)
+    public void advance() {
+        fixture.refillIfDrained();
+        for (GameSession session : fixture.getSessions()) {
+            fixture.getWaveProcessor().processPassedMonsters(session);
+            fixture.getWaveProcessor().processWave(session, BenchFixture.TICK);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Benchmark
+    public long sendServerSnapshot() {
+        for (GameSession session : fixture.getSessions()) {
+            fixture.getSnapshotService().sendServerSnapshot(session);
+        }
+        return fixture.getTransport().getEncodedBytes();
+    }
+}
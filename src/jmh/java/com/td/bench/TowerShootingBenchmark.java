@@ -0,0 +1,61 @@
+package com.td.bench;
+
+import com.td.game.GameSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Target collection and firing of every tower in a context. Monsters do not move between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TowerShootingBenchmark {
+
+    @Param({"1", "8"})
+    public int sessions;
+
+    @Param({"4", "32", "128"})
+    public int towers;
+
+    @Param({"16", "128", "1024"})
+    public int monsters;
+
+    private BenchFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchFixture(sessions, towers, monsters, "sequential", null, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Benchmark
+    public int processTowerShooting() {
+        int shots = 0;
+        for (GameSession session : fixture.getSessions()) {
+            fixture.getTowerShootingService().reloadTowers(session, BenchFixture.TICK);
+            fixture.getTowerShootingService().processTowerShooting(session);
+            shots += session.getShotEvents().size();
+        }
+        return shots;
+    }
+}
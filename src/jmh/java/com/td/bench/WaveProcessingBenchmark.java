@@ -0,0 +1,64 @@
+package com.td.bench;
+
+import com.td.game.GameSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monster movement and arrival of every session in a context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaveProcessingBenchmark {
+
+    @Param({"1", "8"})
+    public int sessions;
+
+    @Param({"16", "128", "1024"})
+    public int monsters;
+
+    private BenchFixture fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchFixture(sessions, 0, monsters, "sequential", null, false);
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        fixture.refillIfDrained();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Benchmark
+    public int processWave() {
+        int running = 0;
+        for (GameSession session : fixture.getSessions()) {
+            fixture.getWaveProcessor().processPassedMonsters(session);
+            fixture.getWaveProcessor().processWave(session, BenchFixture.TICK);
+            running += session.getCurrentWave().getRunning().size();
+        }
+        return running;
+    }
+}
@@ -0,0 +1,243 @@
+package com.td.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load generator. Registers and signs in the players over the REST api, connects them to
+ * /api/game with a steady ramp up and prints the latency distributions every report interval.
+ * Options are passed as --name=value, see {@link Options}.
+ */
+public final class LoadGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final Options options = Options.parse(args);
+        final ObjectMapper mapper = new ObjectMapper();
+        final RestTemplate rest = new RestTemplate();
+        final StandardWebSocketClient client = new StandardWebSocketClient();
+        final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(options.getThreads(),
+                new ThreadFactoryBuilder().setNameFormat("td-load-%d").setDaemon(true).build());
+        final LoadStats stats = new LoadStats();
+        final URI gameUri = URI.create(options.getUrl().replaceFirst("^http", "ws") + "/api/game");
+
+        LOG.info("Starting {} players against {}, ramp up {} s, run {} s",
+                options.getPlayers(), options.getUrl(), options.getRampUpSeconds(), options.getDurationSeconds());
+        final List<SimulatedPlayer> players = new ArrayList<>();
+        final long rampUpStepNanos = TimeUnit.SECONDS.toNanos(options.getRampUpSeconds()) / Math.max(1, options.getPlayers());
+        final long start = System.nanoTime();
+        long nextReport = TimeUnit.SECONDS.toNanos(options.getReportSeconds());
+        for (int i = 0; i < options.getPlayers(); ++i) {
+            final String cookie = signIn(rest, options, options.getPrefix() + i);
+            if (cookie == null) {
+                stats.onError();
+                continue;
+            }
+            final SimulatedPlayer player = new SimulatedPlayer(cookie, gameUri, client, scheduler, stats, mapper, options);
+            players.add(player);
+            player.connect();
+
+            final long elapsed = System.nanoTime() - start;
+            if (elapsed >= nextReport) {
+                stats.printInterval(System.out, TimeUnit.NANOSECONDS.toSeconds(elapsed));
+                nextReport += TimeUnit.SECONDS.toNanos(options.getReportSeconds());
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, start + rampUpStepNanos * (i + 1) - System.nanoTime()));
+        }
+
+        final long end = start + TimeUnit.SECONDS.toNanos(options.getRampUpSeconds() + options.getDurationSeconds());
+        while (System.nanoTime() < end) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, Math.min(end, start + nextReport) - System.nanoTime()));
+            stats.printInterval(System.out, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+            nextReport += TimeUnit.SECONDS.toNanos(options.getReportSeconds());
+        }
+
+        players.forEach(SimulatedPlayer::stop);
+        scheduler.shutdown();
+        stats.printTotal(System.out);
+    }
+
+    /**
+     * Registers the player if needed and signs in with a fresh http session.
+     *
+     * @return the session cookie or null when the player could not sign in
+     */
+    private static String signIn(RestTemplate rest, Options options, String login) {
+        final String email = login + "@loadtest.local";
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        final Map<String, String> signup = new HashMap<>();
+        signup.put("login", login);
+        signup.put("email", email);
+        signup.put("password", options.getPassword());
+        signup.put("gameClass", options.getGameClass());
+        try {
+            rest.postForEntity(options.getUrl() + "/api/auth/signup", new HttpEntity<>(signup, headers), String.class);
+        } catch (HttpClientErrorException e) {
+            LOG.debug("Signup of {} failed, assuming it exists: {}", login, e.getStatusCode());
+        }
+
+        final Map<String, String> signin = new HashMap<>();
+        signin.put("email", email);
+        signin.put("password", options.getPassword());
+        try {
+            final ResponseEntity<String> response = rest.postForEntity(options.getUrl() + "/api/auth/signin",
+                    new HttpEntity<>(signin, headers), String.class);
+            final List<String> cookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
+            if (cookies == null || cookies.isEmpty()) {
+                LOG.warn("No session cookie for {}", login);
+                return null;
+            }
+            return cookies.get(0).split(";", 2)[0];
+        } catch (HttpClientErrorException e) {
+            LOG.warn("Signin of {} failed: {}", login, e.getStatusCode());
+            return null;
+        }
+    }
+
+    static final class Options {
+        private static final long DEFAULT_TICK_MS = 50;
+
+        private String url = "http://localhost:8080";
+        private int players = 100;
+        private long rampUpSeconds = 30;
+        private long durationSeconds = 60;
+        private long reportSeconds = 5;
+        private double orderRate = 0.2;
+        private long tickMs = DEFAULT_TICK_MS;
+        private long reconnectDelayMs = 1000;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private String prefix = "lt" + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + "_";
+        private String password = "loadtest";
+        private String gameClass = "Adventurer";
+
+        static Options parse(String[] args) {
+            final Options options = new Options();
+            for (String arg : args) {
+                final String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                options.set(pair[0], pair[1]);
+            }
+            return options;
+        }
+
+        private void set(String name, String value) {
+            switch (name) {
+                case "url":
+                    url = value.replaceFirst("/$", "");
+                    break;
+                case "players":
+                    players = Integer.parseInt(value);
+                    break;
+                case "ramp-up":
+                    rampUpSeconds = Long.parseLong(value);
+                    break;
+                case "duration":
+                    durationSeconds = Long.parseLong(value);
+                    break;
+                case "report":
+                    reportSeconds = Long.parseLong(value);
+                    break;
+                case "order-rate":
+                    orderRate = Double.parseDouble(value);
+                    break;
+                case "tick-ms":
+                    tickMs = Long.parseLong(value);
+                    break;
+                case "reconnect-delay-ms":
+                    reconnectDelayMs = Long.parseLong(value);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "prefix":
+                    prefix = value;
+                    break;
+                case "password":
+                    password = value;
+                    break;
+                case "game-class":
+                    gameClass = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        int getPlayers() {
+            return players;
+        }
+
+        long getRampUpSeconds() {
+            return rampUpSeconds;
+        }
+
+        long getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        long getReportSeconds() {
+            return reportSeconds;
+        }
+
+        /**
+         * Tower orders per player and second.
+         */
+        double getOrderRate() {
+            return orderRate;
+        }
+
+        long getTickNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(tickMs);
+        }
+
+        long getReconnectDelayMs() {
+            return reconnectDelayMs;
+        }
+
+        int getThreads() {
+            return threads;
+        }
+
+        String getPrefix() {
+            return prefix;
+        }
+
+        String getPassword() {
+            return password;
+        }
+
+        String getGameClass() {
+            return gameClass;
+        }
+    }
+}
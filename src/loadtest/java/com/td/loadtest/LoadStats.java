@@ -0,0 +1,123 @@
+package com.td.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distributions of the simulated players, in microseconds. Every report prints the values
+ * recorded since the previous one and adds them to the totals printed at the end.
+ */
+final class LoadStats {
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_IN_MILLI = 1000.0;
+
+    private final Metric joinToInit = new Metric("join->init");
+    private final Metric stateGap = new Metric("state gap");
+    private final Metric jitter = new Metric("jitter");
+
+    private final LongAdder connected = new LongAdder();
+    private final LongAdder playing = new LongAdder();
+    private final LongAdder states = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void recordJoinToInit(long nanos) {
+        joinToInit.record(nanos);
+    }
+
+    /**
+     * Records the gap between two state messages and its deviation from the tick period.
+     */
+    void recordStateGap(long nanos, long tickNanos) {
+        states.increment();
+        stateGap.record(nanos);
+        jitter.record(Math.abs(nanos - tickNanos));
+    }
+
+    void onConnected() {
+        connected.increment();
+    }
+
+    void onDisconnected() {
+        connected.decrement();
+    }
+
+    void onGameStarted() {
+        playing.increment();
+    }
+
+    void onGameFinished() {
+        playing.decrement();
+    }
+
+    void onOrder() {
+        orders.increment();
+    }
+
+    void onError() {
+        errors.increment();
+    }
+
+    void printInterval(PrintStream out, long elapsedSeconds) {
+        out.printf("[%4ds] connected %d, playing %d, states %d, orders %d, errors %d%n",
+                elapsedSeconds, connected.sum(), playing.sum(), states.sum(), orders.sum(), errors.sum());
+        joinToInit.printInterval(out);
+        stateGap.printInterval(out);
+        jitter.printInterval(out);
+    }
+
+    void printTotal(PrintStream out) {
+        out.println("Total:");
+        joinToInit.printTotal(out);
+        stateGap.printTotal(out);
+        jitter.printTotal(out);
+    }
+
+    private static final class Metric {
+        private final String name;
+        private final Recorder recorder = new Recorder(MAX_TRACKED_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(MAX_TRACKED_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_TRACKED_MICROS));
+        }
+
+        void printInterval(PrintStream out) {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            print(out, interval);
+        }
+
+        void printTotal(PrintStream out) {
+            print(out, total);
+        }
+
+        private void print(PrintStream out, Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            out.printf("    %-10s n=%-8d p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms%n",
+                    name, histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / MICROS_IN_MILLI;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.td.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One player: connects with its http session cookie, joins a game, acknowledges keyframes and
+ * orders towers on random tiles. When a game ends it connects and joins again until the run is stopped.
+ */
+final class SimulatedPlayer extends TextWebSocketHandler {
+
+    private final Logger log = LoggerFactory.getLogger(SimulatedPlayer.class);
+
+    private final String cookie;
+    private final URI gameUri;
+    private final WebSocketClient client;
+    private final ScheduledExecutorService scheduler;
+    private final LoadStats stats;
+    private final ObjectMapper mapper;
+    private final LoadGenerator.Options options;
+
+    private volatile boolean running = true;
+    private volatile WebSocketSession session;
+    private volatile long joinedAt;
+    private volatile long lastStateAt;
+    private volatile List<Integer> availableTowers = new ArrayList<>();
+    private volatile long mapWidth;
+    private volatile long mapHeight;
+    private volatile boolean inGame;
+    private ScheduledFuture<?> orders;
+
+    SimulatedPlayer(String cookie, URI gameUri, WebSocketClient client, ScheduledExecutorService scheduler,
+                    LoadStats stats, ObjectMapper mapper, LoadGenerator.Options options) {
+        this.cookie = cookie;
+        this.gameUri = gameUri;
+        this.client = client;
+        this.scheduler = scheduler;
+        this.stats = stats;
+        this.mapper = mapper;
+        this.options = options;
+    }
+
+    void connect() {
+        if (!running) {
+            return;
+        }
+        final WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.add("Cookie", cookie);
+        client.doHandshake(this, headers, gameUri).addCallback(
+                connected -> { },
+                failure -> {
+                    stats.onError();
+                    log.warn("Unable to connect: {}", failure.getMessage());
+                    scheduler.schedule(this::connect, options.getReconnectDelayMs(), TimeUnit.MILLISECONDS);
+                });
+    }
+
+    void stop() {
+        running = false;
+        final WebSocketSession current = session;
+        if (current != null && current.isOpen()) {
+            try {
+                current.close(CloseStatus.NORMAL);
+            } catch (IOException e) {
+                log.debug("Error on close: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession webSocketSession) {
+        this.session = webSocketSession;
+        stats.onConnected();
+        joinedAt = System.nanoTime();
+        lastStateAt = 0;
+        send(mapper.createObjectNode().put("class", "join"));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession webSocketSession, TextMessage message) throws IOException {
+        final long now = System.nanoTime();
+        final JsonNode json = mapper.readTree(message.getPayload());
+        switch (json.path("class").asText()) {
+            case "init":
+                stats.recordJoinToInit(now - joinedAt);
+                inGame = true;
+                stats.onGameStarted();
+                onInit(json);
+                break;
+            case "state":
+                onState(now);
+                if (json.hasNonNull("frame")) {
+                    send(mapper.createObjectNode().put("class", "keyframeAck").put("frame", json.get("frame").asLong()));
+                }
+                break;
+            case "delta":
+                onState(now);
+                break;
+            case "finish":
+                leaveGame();
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession webSocketSession, CloseStatus status) {
+        stats.onDisconnected();
+        leaveGame();
+        if (running) {
+            if (status.getCode() != CloseStatus.NORMAL.getCode()) {
+                stats.onError();
+                log.warn("Connection closed: {}", status);
+            }
+            scheduler.schedule(this::connect, options.getReconnectDelayMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession webSocketSession, Throwable exception) {
+        stats.onError();
+        log.warn("Transport error: {}", exception.getMessage());
+    }
+
+    private void onState(long now) {
+        if (lastStateAt != 0) {
+            stats.recordStateGap(now - lastStateAt, options.getTickNanos());
+        }
+        lastStateAt = now;
+    }
+
+    private void onInit(JsonNode init) {
+        final List<Integer> towers = new ArrayList<>();
+        init.path("availableTowers").forEach(tower -> towers.add(tower.asInt()));
+        availableTowers = towers;
+        mapWidth = init.path("map").path("width").asLong();
+        mapHeight = init.path("map").path("height").asLong();
+        if (options.getOrderRate() > 0 && !towers.isEmpty() && mapWidth > 0 && mapHeight > 0) {
+            startOrders((long) (TimeUnit.SECONDS.toMicros(1) / options.getOrderRate()));
+        }
+    }
+
+    private synchronized void startOrders(long periodMicros) {
+        orders = scheduler.scheduleAtFixedRate(this::orderTower,
+                ThreadLocalRandom.current().nextLong(periodMicros), periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void orderTower() {
+        final Random random = ThreadLocalRandom.current();
+        final ObjectNode order = mapper.createObjectNode()
+                .put("class", "towerOrder")
+                .put("orderedTower", availableTowers.get(random.nextInt(availableTowers.size())))
+                .put("x", random.nextInt((int) mapWidth))
+                .put("y", random.nextInt((int) mapHeight));
+        send(order);
+        stats.onOrder();
+    }
+
+    private synchronized void leaveGame() {
+        if (inGame) {
+            inGame = false;
+            stats.onGameFinished();
+        }
+        if (orders != null) {
+            orders.cancel(false);
+            orders = null;
+        }
+    }
+
+    private void send(ObjectNode message) {
+        final WebSocketSession current = session;
+        if (current == null || !current.isOpen()) {
+            return;
+        }
+        try {
+            synchronized (current) {
+                current.sendMessage(new TextMessage(mapper.writeValueAsString(message)));
+            }
+        } catch (IOException e) {
+            stats.onError();
+            log.warn("Unable to send: {}", e.getMessage());
+        }
+    }
+}
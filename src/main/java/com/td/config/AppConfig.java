@@ -68,6 +68,7 @@ public class AppConfig {
 
         source.registerCorsConfiguration("/api/scores/page/*", config);
         source.registerCorsConfiguration("/api/scores/*/page/*", config);
+        source.registerCorsConfiguration("/api/scores/rank/*", config);
 
         return new CorsFilter(source);
     }
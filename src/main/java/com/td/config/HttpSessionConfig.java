@@ -1,9 +1,43 @@
 package com.td.config;
 
+import com.td.sessions.ShardedSessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
 import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
 
-@EnableJdbcHttpSession
+import java.time.Duration;
+
+/**
+ * HTTP sessions are kept in process unless sessions.store=jdbc.
+ */
+@Configuration
 public class HttpSessionConfig {
 
+    @Configuration
+    @ConditionalOnProperty(name = "sessions.store", havingValue = "jdbc")
+    @EnableJdbcHttpSession
+    public static class JdbcSessionConfig {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "sessions.store", havingValue = "memory", matchIfMissing = true)
+    @EnableSpringHttpSession
+    public static class MemorySessionConfig {
 
+        @Bean
+        public ShardedSessionRepository sessionRepository(
+                @Value("${sessions.memory.shards:16}") int shards,
+                @Value("${sessions.max-inactive-seconds:1800}") long maxInactiveSeconds,
+                @Value("${sessions.memory.wheel-tick-ms:1000}") long wheelTickMs,
+                @Value("${sessions.memory.wheel-slots:4096}") int wheelSlots,
+                @Value("${sessions.memory.off-heap:false}") boolean offHeap,
+                @Value("${sessions.memory.snapshot:sessions.snapshot}") String snapshot,
+                @Value("${sessions.memory.snapshot-period-ms:60000}") long snapshotPeriodMs) {
+            return new ShardedSessionRepository(shards, Duration.ofSeconds(maxInactiveSeconds), wheelTickMs, wheelSlots,
+                    offHeap, snapshot, snapshotPeriodMs);
+        }
+    }
 }
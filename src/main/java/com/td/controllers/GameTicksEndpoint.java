@@ -0,0 +1,160 @@
+package com.td.controllers;
+
+import com.td.game.GameContext;
+import com.td.game.TickMetrics;
+import com.td.game.TickPhase;
+import com.td.game.TickStats;
+import com.td.game.services.TickMetricsService;
+import com.td.websocket.TransportService;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per context tick phase distributions, "recent" covers the last closed interval of {@code game.metrics.interval-ms}.
+ * Reading does not change them.
+ */
+@Component
+@Endpoint(id = "gameticks")
+public class GameTicksEndpoint {
+
+    @NotNull
+    private final TickMetricsService tickMetricsService;
+
+    @NotNull
+    private final TransportService transportService;
+
+    public GameTicksEndpoint(@NotNull TickMetricsService tickMetricsService,
+                             @NotNull TransportService transportService) {
+        this.tickMetricsService = tickMetricsService;
+        this.transportService = transportService;
+    }
+
+    @ReadOperation
+    public GameTicksReport report() {
+        final List<ContextReport> contexts = new ArrayList<>();
+        final List<GameContext> registered = tickMetricsService.getContexts();
+        for (int i = 0; i < registered.size(); ++i) {
+            contexts.add(new ContextReport(i, registered.get(i)));
+        }
+        return new GameTicksReport(contexts, transportService, tickMetricsService.getIntervalMs());
+    }
+
+    public static class GameTicksReport {
+        private final List<ContextReport> contexts;
+        private final long bytesSent;
+        private final long framesSent;
+        private final long framesDropped;
+        private final int connections;
+        private final long intervalMs;
+
+        GameTicksReport(List<ContextReport> contexts, TransportService transportService, long intervalMs) {
+            this.contexts = contexts;
+            this.intervalMs = intervalMs;
+            this.bytesSent = transportService.getBytesSent();
+            this.framesSent = transportService.getFramesSent();
+            this.framesDropped = transportService.getDroppedFrames();
+            this.connections = transportService.getConnectionsCount();
+        }
+
+        public List<ContextReport> getContexts() {
+            return contexts;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getFramesSent() {
+            return framesSent;
+        }
+
+        public long getFramesDropped() {
+            return framesDropped;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+    }
+
+    public static class ContextReport {
+        private final int context;
+        private final long ticks;
+        private final long overruns;
+        private final long skippedTicks;
+        private final long maxLatenessNanos;
+        private final long load;
+        private final int sessions;
+        private final int monsters;
+        private final int towers;
+        private final Map<String, TickMetrics.PhaseReport> phases = new LinkedHashMap<>();
+
+        ContextReport(int context, GameContext gameContext) {
+            final TickStats stats = gameContext.getTickStats();
+            final TickMetrics metrics = gameContext.getTickMetrics();
+            this.context = context;
+            this.ticks = stats.getTicks();
+            this.overruns = stats.getOverruns();
+            this.skippedTicks = stats.getSkippedTicks();
+            this.maxLatenessNanos = stats.getMaxLatenessNanos();
+            this.load = gameContext.getLoad();
+            this.sessions = metrics.getSessions();
+            this.monsters = metrics.getMonsters();
+            this.towers = metrics.getTowers();
+            for (Map.Entry<TickPhase, TickMetrics.PhaseReport> phase : metrics.report().entrySet()) {
+                phases.put(phase.getKey().getTag(), phase.getValue());
+            }
+        }
+
+        public int getContext() {
+            return context;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getOverruns() {
+            return overruns;
+        }
+
+        public long getSkippedTicks() {
+            return skippedTicks;
+        }
+
+        public long getMaxLatenessNanos() {
+            return maxLatenessNanos;
+        }
+
+        public long getLoad() {
+            return load;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public int getMonsters() {
+            return monsters;
+        }
+
+        public int getTowers() {
+            return towers;
+        }
+
+        public Map<String, TickMetrics.PhaseReport> getPhases() {
+            return phases;
+        }
+    }
+}
@@ -1,43 +1,66 @@
 package com.td.controllers;
 
-import com.td.daos.ScoresDao;
-import com.td.domain.Score;
+import com.td.daos.Leaderboard;
+import com.td.daos.LeaderboardEntry;
+import com.td.daos.UserCache;
+import com.td.daos.UserView;
+import com.td.dtos.RankDto;
+import com.td.dtos.ResponseJson;
 import com.td.dtos.ScoresPageDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "/api/scores")
 public class ScoresController {
-    private final ScoresDao scoresDao;
+    private final Leaderboard leaderboard;
+
+    private final UserCache userCache;
 
     private final int pageSize = 10;
 
     @Autowired
-    public ScoresController(ScoresDao scoresDao) {
-        this.scoresDao = scoresDao;
+    public ScoresController(Leaderboard leaderboard, UserCache userCache) {
+        this.leaderboard = leaderboard;
+        this.userCache = userCache;
     }
 
     @GetMapping(value = {"/{mark}/page/{limit}", "/page/{limit}", "/{mark}", "/"}, produces = "application/json")
     @ResponseBody
     public ResponseEntity getScores(@PathVariable(value = "mark") Optional<Long> mark,
                                     @PathVariable(value = "limit") Optional<Integer> limit) {
-        List<Score> scores;
-
-        if (mark.isPresent() && limit.isPresent()) {
-            scores = scoresDao.getScoresList(mark.get(), limit.get());
-        } else if (limit.isPresent()) {
-            scores = scoresDao.getScoresList(limit.get());
-        } else if (mark.isPresent()) {
-            scores = scoresDao.getScoresList(mark.get(), pageSize);
-        } else {
-            scores = scoresDao.getScoresList(pageSize);
+        final int size = limit.orElse(pageSize);
+        final List<LeaderboardEntry> scores = mark.isPresent()
+                ? leaderboard.getPage(mark.get(), size)
+                : leaderboard.getTop(size);
+
+        return ResponseEntity.ok(new ScoresPageDto(scores, getNicknames(scores)));
+    }
+
+    @GetMapping(value = "/rank/{userId}", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity getRank(@PathVariable(value = "userId") Long userId) {
+        final Leaderboard.UserRank rank = leaderboard.getRank(userId);
+        final UserView user = rank == null ? null : userCache.getUser(userId);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ResponseJson("no scores"));
         }
+        return ResponseEntity.ok(new RankDto(userId, user.getNickname(), rank));
+    }
 
-        return ResponseEntity.ok(new ScoresPageDto(scores));
+    private Map<Long, String> getNicknames(List<LeaderboardEntry> scores) {
+        final Map<Long, String> nicknames = new HashMap<>();
+        final Set<Long> ids = scores.stream().map(LeaderboardEntry::getUserId).collect(Collectors.toSet());
+        userCache.getUsers(ids).forEach((id, user) -> nicknames.put(id, user.getNickname()));
+        return nicknames;
     }
 }
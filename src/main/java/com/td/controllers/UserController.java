@@ -2,8 +2,10 @@ package com.td.controllers;
 
 import com.td.Constants;
 import com.td.daos.UserDao;
+import com.td.daos.UserStatsDao;
 import com.td.domain.User;
 import com.td.dtos.UserDto;
+import com.td.dtos.UserStatsDto;
 import com.td.dtos.groups.UpdateUser;
 import com.td.exceptions.AuthException;
 import org.modelmapper.ModelMapper;
@@ -23,10 +25,13 @@ public class UserController {
 
     private final UserDao userDao;
 
+    private final UserStatsDao userStatsDao;
+
     @Autowired
-    public UserController(ModelMapper modelMapper, UserDao userDao) {
+    public UserController(ModelMapper modelMapper, UserDao userDao, UserStatsDao userStatsDao) {
         this.modelMapper = modelMapper;
         this.userDao = userDao;
+        this.userStatsDao = userStatsDao;
     }
 
     @GetMapping(produces = "application/json")
@@ -43,6 +48,19 @@ public class UserController {
                 .body(modelMapper.map(user, UserDto.class));
     }
 
+    @GetMapping(path = "/stats", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity getStatsBySession(HttpSession httpSession) {
+
+        Long userId = (Long) httpSession.getAttribute(Constants.USER_SESSION_KEY);
+        if (userId == null) {
+            throw new AuthException("unauthorized", "/api/user/stats", HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new UserStatsDto(userStatsDao.getStats(userId)));
+    }
+
     @PostMapping(path = "/edit", consumes = "application/json", produces = "application/json")
     @ResponseBody
     public ResponseEntity editUser(@Validated(UpdateUser.class) @RequestBody UserDto userDto, HttpSession httpSession) {
@@ -0,0 +1,211 @@
+package com.td.daos;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranked index of all scores, loaded once at startup and then kept up to date by the score writers.
+ * Serves leaderboard pages and ranks in O(log n) instead of sorting the scores table on every request.
+ */
+@Service
+public class Leaderboard {
+
+    private final Logger log = LoggerFactory.getLogger(Leaderboard.class);
+
+    @NotNull
+    private final EntityManager em;
+
+    private final RankedSkipList<LeaderboardEntry> ranking = new RankedSkipList<>(LeaderboardEntry.ORDER);
+    private final Map<Long, LeaderboardEntry> byScoreId = new HashMap<>();
+    private final Map<Long, NavigableSet<LeaderboardEntry>> byUser = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Leaderboard(@Autowired @NotNull EntityManager em) {
+        this.em = em;
+    }
+
+    @PostConstruct
+    public void load() {
+        final List<Object[]> rows = em.createQuery(
+                "SELECT s.id, s.score, s.owner.id FROM Score s ORDER BY s.score DESC, s.id ASC",
+                Object[].class)
+                .getResultList();
+        final List<LeaderboardEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new LeaderboardEntry((Long) row[0], (Integer) row[1], (Long) row[2]));
+        }
+        addAll(entries);
+        log.info("Leaderboard loaded with {} scores", entries.size());
+    }
+
+    public void add(@NotNull LeaderboardEntry entry) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            insert(entry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void addAll(@NotNull List<LeaderboardEntry> entries) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            entries.forEach(this::insert);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(@NotNull Long scoreId) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            final LeaderboardEntry entry = byScoreId.remove(scoreId);
+            if (entry == null) {
+                return;
+            }
+            ranking.remove(entry);
+            final NavigableSet<LeaderboardEntry> scores = byUser.get(entry.getUserId());
+            scores.remove(entry);
+            if (scores.isEmpty()) {
+                byUser.remove(entry.getUserId());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Drops all scores of the user, the database removes them together with the user.
+     */
+    public void removeUser(@NotNull Long userId) {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            final NavigableSet<LeaderboardEntry> scores = byUser.remove(userId);
+            if (scores == null) {
+                return;
+            }
+            for (LeaderboardEntry entry : scores) {
+                byScoreId.remove(entry.getScoreId());
+                ranking.remove(entry);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> getTop(int limit) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return ranking.head(limit);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Cursor page, same as {@link ScoresDao#getScoresList(Long, int)}.
+     *
+     * @return entries following the one of the given score, empty if there is no such score
+     */
+    public List<LeaderboardEntry> getPage(@NotNull Long mark, int limit) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            final LeaderboardEntry bound = byScoreId.get(mark);
+            if (bound == null) {
+                return new ArrayList<>();
+            }
+            return ranking.after(bound, limit);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @return rank of the best score of the user, null if the user has no scores
+     */
+    @Nullable
+    public UserRank getRank(@NotNull Long userId) {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            final NavigableSet<LeaderboardEntry> scores = byUser.get(userId);
+            if (scores == null) {
+                return null;
+            }
+            final LeaderboardEntry best = scores.first();
+            return new UserRank(best, ranking.rank(best), ranking.size());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public int size() {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return ranking.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void insert(@NotNull LeaderboardEntry entry) {
+        if (byScoreId.putIfAbsent(entry.getScoreId(), entry) != null) {
+            return;
+        }
+        ranking.add(entry);
+        byUser.computeIfAbsent(entry.getUserId(), userId -> new TreeSet<>(LeaderboardEntry.ORDER)).add(entry);
+    }
+
+    public static final class UserRank {
+        @NotNull
+        private final LeaderboardEntry best;
+        private final int rank;
+        private final int total;
+
+        UserRank(@NotNull LeaderboardEntry best, int rank, int total) {
+            this.best = best;
+            this.rank = rank;
+            this.total = total;
+        }
+
+        @NotNull
+        public LeaderboardEntry getBest() {
+            return best;
+        }
+
+        /**
+         * 1-based position of the best score of the user among all scores.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.td.daos;
+
+import java.util.Comparator;
+
+public final class LeaderboardEntry {
+
+    /**
+     * Leaderboard order: score descending, then older scores first.
+     */
+    public static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingInt(LeaderboardEntry::getScore)
+            .reversed()
+            .thenComparingLong(LeaderboardEntry::getScoreId);
+
+    private final long scoreId;
+    private final int score;
+    private final Long userId;
+
+    public LeaderboardEntry(long scoreId, int score, Long userId) {
+        this.scoreId = scoreId;
+        this.score = score;
+        this.userId = userId;
+    }
+
+    public long getScoreId() {
+        return scoreId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
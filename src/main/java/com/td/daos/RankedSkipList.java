@@ -0,0 +1,168 @@
+package com.td.daos;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Skip list which keeps for every link the number of elements it skips, so that ranks are found
+ * in O(log n) along with the lookups. Not thread safe.
+ */
+class RankedSkipList<T> {
+
+    private static final int MAX_LEVEL = 32;
+
+    @NotNull
+    private final Comparator<? super T> comparator;
+
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    private final Random random = new Random();
+    private int level = 1;
+    private int size;
+
+    RankedSkipList(@NotNull Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(@NotNull T value) {
+        @SuppressWarnings("unchecked")
+        final Node<T>[] update = new Node[MAX_LEVEL];
+        final int[] rank = new int[MAX_LEVEL];
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; --i) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        final int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; ++i) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        final Node<T> inserted = new Node<>(value, nodeLevel);
+        for (int i = 0; i < nodeLevel; ++i) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; ++i) {
+            ++update[i].span[i];
+        }
+        ++size;
+    }
+
+    /**
+     * @return false if the value is not in the list
+     */
+    boolean remove(@NotNull T value) {
+        @SuppressWarnings("unchecked")
+        final Node<T>[] update = new Node[MAX_LEVEL];
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; --i) {
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) < 0) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        final Node<T> removed = node.next[0];
+        if (removed == null || comparator.compare(removed.value, value) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; ++i) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                --update[i].span[i];
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            --level;
+        }
+        --size;
+        return true;
+    }
+
+    /**
+     * @return 1-based rank of the value, 0 if it is not in the list
+     */
+    int rank(@NotNull T value) {
+        int rank = 0;
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; --i) {
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) <= 0) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node != head && comparator.compare(node.value, value) == 0) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    List<T> head(int limit) {
+        return collect(head.next[0], limit);
+    }
+
+    /**
+     * @return up to limit values following the given one, which may be absent from the list
+     */
+    List<T> after(@NotNull T value, int limit) {
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; --i) {
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) <= 0) {
+                node = node.next[i];
+            }
+        }
+        return collect(node.next[0], limit);
+    }
+
+    private List<T> collect(@Nullable Node<T> from, int limit) {
+        final List<T> values = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+        for (Node<T> node = from; node != null && values.size() < limit; node = node.next[0]) {
+            values.add(node.value);
+        }
+        return values;
+    }
+
+    private int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && random.nextBoolean()) {
+            ++nodeLevel;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final Node<T>[] next;
+        private final int[] span;
+
+        @SuppressWarnings("unchecked")
+        Node(T value, int level) {
+            this.value = value;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
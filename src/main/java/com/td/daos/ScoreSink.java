@@ -0,0 +1,310 @@
+package com.td.daos;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind persistence of game results. Results are queued and written by a background thread,
+ * one multi-row insert per flush. Batches that can't be written are appended to a local spool file
+ * which is replayed once the database accepts writes again. Inserts run with a query timeout, and the writer
+ * moves the whole queue to the spool once it falls behind, so the queue only fills up if the disk is stuck too.
+ * Results that don't fit the queue are dropped.
+ */
+@Service
+public class ScoreSink {
+
+    private static final String INSERT = "WITH inserted AS (INSERT INTO scores (user_id, score, score_date) VALUES ";
+    private static final String ROW = "(?, ?, ?)";
+
+    /**
+     * Merges the inserted rows into user_stats within the same statement, and reads them back for the leaderboard.
+     */
+    private static final String RETURNING = " RETURNING id, score, user_id, score_date), "
+            .concat("stats AS (").concat(UserStatsDao.INSERT)
+            .concat(UserStatsDao.AGGREGATE).concat("inserted GROUP BY user_id").concat(UserStatsDao.MERGE)
+            .concat(") SELECT id, score, user_id FROM inserted");
+    private static final int COLUMNS = 3;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(ScoreSink.class);
+
+    @NotNull
+    private final JdbcTemplate jdbcTemplate;
+
+    @NotNull
+    private final Leaderboard leaderboard;
+
+    private final BlockingQueue<ScoreRecord> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final int spillThreshold;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryNanos;
+
+    private final Path spool;
+    private final Path replaying;
+    private final Object spoolLock = new Object();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    private long retryAt;
+
+    public ScoreSink(@NotNull JdbcTemplate jdbcTemplate,
+                     @NotNull Leaderboard leaderboard,
+                     @NotNull ScoreSinkSettings settings) {
+        // a template of its own, the timeout is for the sink only
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setQueryTimeout(settings.getQueryTimeoutSeconds());
+        this.leaderboard = leaderboard;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.spillThreshold = settings.getQueueCapacity() / 2;
+        this.batchSize = settings.getBatchSize();
+        this.flushIntervalMs = settings.getFlushIntervalMs();
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(settings.getRetryMs());
+        this.spool = Paths.get(settings.getSpool()).toAbsolutePath();
+        this.replaying = Paths.get(settings.getSpool() + ".replay").toAbsolutePath();
+        this.writer = new Thread(this::writeLoop, "td-score-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        retryAt = System.nanoTime();
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MS);
+        final List<ScoreRecord> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            appendToSpool(spool, rest);
+        }
+    }
+
+    /**
+     * Called from the game threads, so it never blocks: the result is dropped if the queue is full.
+     */
+    public void submit(@NotNull Long userId, int score) {
+        if (!queue.offer(new ScoreRecord(userId, score, System.currentTimeMillis()))) {
+            dropped.increment();
+            log.warn("Score queue is full, dropping the score {} of user {}, {} dropped so far", score, userId, dropped.sum());
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void writeLoop() {
+        final List<ScoreRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final ScoreRecord first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    if (System.nanoTime() - retryAt < 0 || !write(batch)) {
+                        appendToSpool(spool, batch);
+                    }
+                    batch.clear();
+                }
+                spillIfBehind();
+                if (running && System.nanoTime() - retryAt >= 0) {
+                    replaySpool();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Exception in score writer: ", e);
+            }
+        }
+    }
+
+    /**
+     * Spools everything queued while the database is unavailable or can't keep up with the games,
+     * so that the queue has room again. The spool is written back once the database catches up.
+     */
+    private void spillIfBehind() {
+        if (queue.size() < spillThreshold && System.nanoTime() - retryAt >= 0) {
+            return;
+        }
+        final List<ScoreRecord> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            log.warn("Score writer is behind, spooling {} queued scores", rest.size());
+            appendToSpool(spool, rest);
+        }
+    }
+
+    /**
+     * @return false if the database is not available or too slow, the batch has to be written later
+     */
+    private boolean write(@NotNull List<ScoreRecord> batch) {
+        try {
+            insert(batch);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return writeOneByOne(batch);
+        } catch (DataAccessException e) {
+            log.warn("Unable to write {} scores, spooling: {}", batch.size(), e.getMessage());
+            retryAt = System.nanoTime() + retryNanos;
+            return false;
+        }
+    }
+
+    /**
+     * Finds the rows the database rejects, e.g. of removed users, and drops them.
+     */
+    private boolean writeOneByOne(@NotNull List<ScoreRecord> batch) {
+        for (int i = 0; i < batch.size(); ++i) {
+            final ScoreRecord record = batch.get(i);
+            try {
+                insert(Collections.singletonList(record));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Dropping the score {} of user {}: {}", record.score, record.userId, e.getMessage());
+            } catch (DataAccessException e) {
+                retryAt = System.nanoTime() + retryNanos;
+                appendToSpool(spool, batch.subList(i, batch.size()));
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private void insert(@NotNull List<ScoreRecord> batch) {
+        final StringBuilder sql = new StringBuilder(INSERT);
+        final Object[] args = new Object[batch.size() * COLUMNS];
+        int arg = 0;
+        for (ScoreRecord record : batch) {
+            if (arg > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+            args[arg++] = record.userId;
+            args[arg++] = record.score;
+            args[arg++] = new Timestamp(record.recordedAt);
+        }
+        sql.append(RETURNING);
+        leaderboard.addAll(jdbcTemplate.query(sql.toString(),
+                (rs, row) -> new LeaderboardEntry(rs.getLong("id"), rs.getInt("score"), rs.getLong("user_id")), args));
+    }
+
+    /**
+     * Moves the spool aside, so that new results can be spooled meanwhile, and writes it in batches.
+     * Rows left after a failure stay in the replay file for the next attempt.
+     */
+    private void replaySpool() {
+        try {
+            if (!Files.exists(replaying)) {
+                synchronized (spoolLock) {
+                    if (!Files.exists(spool)) {
+                        return;
+                    }
+                    Files.move(spool, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            final List<ScoreRecord> records = new ArrayList<>();
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                final ScoreRecord record = ScoreRecord.parse(line);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            log.info("Replaying {} spooled scores", records.size());
+            for (int from = 0; from < records.size(); from += batchSize) {
+                final List<ScoreRecord> batch = records.subList(from, Math.min(from + batchSize, records.size()));
+                if (!write(batch)) {
+                    final Path rest = Paths.get(replaying + ".tmp");
+                    Files.deleteIfExists(rest);
+                    appendToSpool(rest, records.subList(from, records.size()));
+                    Files.move(rest, replaying, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return;
+                }
+            }
+            Files.delete(replaying);
+        } catch (IOException e) {
+            log.error("Unable to replay the score spool: ", e);
+            retryAt = System.nanoTime() + retryNanos;
+        }
+    }
+
+    private void appendToSpool(@NotNull Path file, @NotNull Collection<ScoreRecord> records) {
+        synchronized (spoolLock) {
+            try (FileOutputStream stream = new FileOutputStream(file.toFile(), true);
+                 BufferedWriter out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+                for (ScoreRecord record : records) {
+                    out.write(record.format());
+                    out.newLine();
+                }
+                out.flush();
+                stream.getFD().sync();
+            } catch (IOException e) {
+                log.error("Unable to spool {} scores, they are lost: ", records.size(), e);
+            }
+        }
+    }
+
+    private static final class ScoreRecord {
+        private final Long userId;
+        private final int score;
+        private final long recordedAt;
+
+        ScoreRecord(Long userId, int score, long recordedAt) {
+            this.userId = userId;
+            this.score = score;
+            this.recordedAt = recordedAt;
+        }
+
+        String format() {
+            return userId + "," + score + "," + recordedAt;
+        }
+
+        @Nullable
+        static ScoreRecord parse(String line) {
+            final String[] fields = line.split(",");
+            if (fields.length != COLUMNS) {
+                return null;
+            }
+            try {
+                return new ScoreRecord(Long.valueOf(fields[0]), Integer.parseInt(fields[1]), Long.parseLong(fields[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
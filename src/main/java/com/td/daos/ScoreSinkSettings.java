@@ -0,0 +1,56 @@
+package com.td.daos;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ScoreSinkSettings {
+
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryMs;
+    private final int queryTimeoutSeconds;
+    private final String spool;
+
+    public ScoreSinkSettings(@Value("${scores.sink.queue-capacity:10000}") int queueCapacity,
+                             @Value("${scores.sink.batch-size:500}") int batchSize,
+                             @Value("${scores.sink.flush-interval-ms:200}") long flushIntervalMs,
+                             @Value("${scores.sink.retry-ms:5000}") long retryMs,
+                             @Value("${scores.sink.query-timeout-seconds:2}") int queryTimeoutSeconds,
+                             @Value("${scores.sink.spool:score-spool.log}") String spool) {
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retryMs = retryMs;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.spool = spool;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public long getRetryMs() {
+        return retryMs;
+    }
+
+    /**
+     * Longest a batch insert may take, a slower one is cancelled and the batch goes to the spool.
+     */
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    public String getSpool() {
+        return spool;
+    }
+}
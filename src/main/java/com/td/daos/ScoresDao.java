@@ -8,11 +8,17 @@ import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -20,8 +26,14 @@ public class ScoresDao implements IScoreDao {
 
     private final EntityManager em;
 
-    public ScoresDao(@Autowired EntityManager em) {
+    private final Leaderboard leaderboard;
+
+    private final UserStatsDao userStatsDao;
+
+    public ScoresDao(@Autowired EntityManager em, @Autowired Leaderboard leaderboard, @Autowired UserStatsDao userStatsDao) {
         this.em = em;
+        this.leaderboard = leaderboard;
+        this.userStatsDao = userStatsDao;
     }
 
     @Override
@@ -30,6 +42,8 @@ public class ScoresDao implements IScoreDao {
         user.addScores(score);
         try {
             em.persist(score);
+            userStatsDao.addScore(user.getId(), scores, Timestamp.from(score.getScoreDate().toInstant()));
+            addToLeaderboardOnCommit(score);
             return score;
         } catch (PersistenceException except) {
             if (except.getCause() instanceof ConstraintViolationException) {
@@ -40,6 +54,16 @@ public class ScoresDao implements IScoreDao {
         }
     }
 
+    private void addToLeaderboardOnCommit(Score score) {
+        LeaderboardEntry entry = new LeaderboardEntry(score.getId(), score.getScore(), score.getOwner().getId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                leaderboard.add(entry);
+            }
+        });
+    }
+
     @Override
     public List<Score> getScoresList(Long infimum, int limit) {
         Score bound = em.find(Score.class, infimum);
@@ -71,5 +95,20 @@ public class ScoresDao implements IScoreDao {
 
     }
 
-
+    @Override
+    public Map<Long, Double> getAverageScores(Collection<Long> userIds) {
+        Map<Long, Double> averages = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return averages;
+        }
+        List<Object[]> rows = em.createQuery(
+                "SELECT s.owner.id, AVG(s.score) FROM Score s WHERE s.owner.id IN (:ids) GROUP BY s.owner.id",
+                Object[].class)
+                .setParameter("ids", userIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            averages.put((Long) row[0], ((Number) row[1]).doubleValue());
+        }
+        return averages;
+    }
 }
@@ -0,0 +1,82 @@
+package com.td.daos;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.td.domain.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of {@link UserView}s in front of {@link UserDao}. Entries are dropped by UserDao on every
+ * update or removal of the user, the time to live bounds the staleness of an entry loaded concurrently with a change.
+ * Missing users are not cached.
+ */
+@Service
+public class UserCache {
+
+    @NotNull
+    private final UserDao userDao;
+
+    private final Cache<Long, UserView> cache;
+
+    public UserCache(@NotNull UserDao userDao,
+                     @Value("${users.cache.max-size:10000}") long maxSize,
+                     @Value("${users.cache.ttl-ms:60000}") long ttlMs) {
+        this.userDao = userDao;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .build();
+        userDao.addChangeListener(this::invalidate);
+    }
+
+    @Nullable
+    public UserView getUser(@NotNull Long id) {
+        final UserView cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return load(userDao.getUserById(id));
+    }
+
+    /**
+     * Users missing in the cache are loaded with one query, ids of nonexistent users are absent from the result.
+     */
+    public Map<Long, UserView> getUsers(@NotNull Collection<Long> ids) {
+        final Map<Long, UserView> users = new HashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            final UserView cached = cache.getIfPresent(id);
+            if (cached != null) {
+                users.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        userDao.getUsersByIds(missing).forEach(user -> users.put(user.getId(), load(user)));
+        return users;
+    }
+
+    public void invalidate(@NotNull Long id) {
+        cache.invalidate(id);
+    }
+
+    @Nullable
+    private UserView load(@Nullable User user) {
+        if (user == null) {
+            return null;
+        }
+        final UserView view = UserView.of(user);
+        cache.put(view.getId(), view);
+        return view;
+    }
+}
@@ -12,10 +12,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.*;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -24,8 +30,41 @@ public class UserDao implements IUserDao {
 
     private final EntityManager em;
 
-    public UserDao(@Autowired EntityManager em) {
+    private final Leaderboard leaderboard;
+
+    private final List<Consumer<Long>> changeListeners = new CopyOnWriteArrayList<>();
+
+    public UserDao(@Autowired EntityManager em, @Autowired Leaderboard leaderboard) {
         this.em = em;
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * The listener gets the id of every updated or removed user, once on the change and once more after the commit.
+     */
+    public void addChangeListener(Consumer<Long> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void removeFromLeaderboardOnCommit(Long id) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                leaderboard.removeUser(id);
+            }
+        });
+    }
+
+    private void notifyChanged(Long id) {
+        changeListeners.forEach(listener -> listener.accept(id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    changeListeners.forEach(listener -> listener.accept(id));
+                }
+            });
+        }
     }
 
     @Override
@@ -89,6 +128,16 @@ public class UserDao implements IUserDao {
                 .getResultList();
     }
 
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createQuery("SELECT u FROM User u LEFT JOIN FETCH u.profile WHERE u.id IN (:ids)", User.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     @Override
     public User createUser(String nickname, String email, String password, String gameClass) {
         try {
@@ -131,6 +180,7 @@ public class UserDao implements IUserDao {
             user.updateNickname(login);
             user.updatePassword(password);
             em.flush();
+            notifyChanged(id);
             return user;
         } catch (PersistenceException except) {
             if (except.getCause() instanceof ConstraintViolationException) {
@@ -146,6 +196,7 @@ public class UserDao implements IUserDao {
         try {
             user.setEmail(email);
             em.flush();
+            notifyChanged(user.getId());
             return user;
         } catch (PersistenceException except) {
             if (except.getCause() instanceof ConstraintViolationException) {
@@ -161,6 +212,7 @@ public class UserDao implements IUserDao {
         try {
             user.updateNickname(nickname);
             em.flush();
+            notifyChanged(user.getId());
             return user;
         } catch (PersistenceException except) {
             if (except.getCause() instanceof ConstraintViolationException) {
@@ -176,6 +228,7 @@ public class UserDao implements IUserDao {
         try {
             user.updatePassword(password);
             em.flush();
+            notifyChanged(user.getId());
             return user;
         } catch (PersistenceException except) {
             if (except.getCause() instanceof ConstraintViolationException) {
@@ -190,6 +243,8 @@ public class UserDao implements IUserDao {
     @Override
     public void removeUser(User user) {
         em.remove(user);
+        removeFromLeaderboardOnCommit(user.getId());
+        notifyChanged(user.getId());
     }
 
     @Override
@@ -213,12 +268,16 @@ public class UserDao implements IUserDao {
         try {
             if (id != null) {
                 em.remove(em.getReference(User.class, id));
+                removeFromLeaderboardOnCommit(id);
+                notifyChanged(id);
             } else {
                 User user = em.createQuery("SELECT u FROM User u WHERE u.email = :email or u.nickname = :nickname", User.class)
                         .setParameter("email", email)
                         .setParameter("nickname", nickname)
                         .getSingleResult();
                 em.remove(user);
+                removeFromLeaderboardOnCommit(user.getId());
+                notifyChanged(user.getId());
             }
         } catch (EntityNotFoundException e) {
             logger.trace("Deleting of nonexisting user, id: {},email: {},nickname: {}", id, email, nickname, e);
@@ -0,0 +1,78 @@
+package com.td.daos;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Fills user_stats for the scores recorded before the table existed, a chunk of users per transaction
+ * with a pause in between, so that the job does not compete with the game for the database.
+ * The progress is stored with every chunk, a restarted server continues from where it stopped.
+ */
+@Service
+public class UserStatsBackfill {
+
+    private final Logger log = LoggerFactory.getLogger(UserStatsBackfill.class);
+
+    @NotNull
+    private final UserStatsDao userStatsDao;
+
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long retryMs;
+
+    private final Thread worker;
+
+    public UserStatsBackfill(@NotNull UserStatsDao userStatsDao,
+                             @Value("${stats.backfill.chunk-size:500}") int chunkSize,
+                             @Value("${stats.backfill.pause-ms:200}") long pauseMs,
+                             @Value("${stats.backfill.retry-ms:30000}") long retryMs) {
+        this.userStatsDao = userStatsDao;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.retryMs = retryMs;
+        this.worker = new Thread(this::run, "td-stats-backfill");
+        this.worker.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (chunkSize > 0) {
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    private void run() {
+        long chunks = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    if (!userStatsDao.backfillChunk(chunkSize)) {
+                        break;
+                    }
+                    ++chunks;
+                    Thread.sleep(pauseMs);
+                } catch (RuntimeException e) {
+                    log.error("Exception on user stats backfill, retrying in {} ms: ", retryMs, e);
+                    Thread.sleep(retryMs);
+                }
+            }
+            if (chunks > 0) {
+                log.info("User stats backfill done, {} chunks of {} users", chunks, chunkSize);
+            }
+        } catch (InterruptedException e) {
+            log.info("User stats backfill stopped after {} chunks", chunks);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.td.daos;
+
+import com.td.domain.UserStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * user_stats rows are only ever merged with aggregates of new scores, so that concurrent writers and
+ * the backfill never overwrite each other.
+ */
+@Service
+@Transactional
+public class UserStatsDao {
+
+    static final String INSERT = "INSERT INTO user_stats (user_id, best_score, games_played, total_score, last_played) ";
+
+    static final String MERGE = " ON CONFLICT (user_id) DO UPDATE SET "
+            .concat("best_score = GREATEST(user_stats.best_score, EXCLUDED.best_score), ")
+            .concat("games_played = user_stats.games_played + EXCLUDED.games_played, ")
+            .concat("total_score = user_stats.total_score + EXCLUDED.total_score, ")
+            .concat("last_played = GREATEST(user_stats.last_played, EXCLUDED.last_played)");
+
+    /**
+     * Aggregates of the rows of a scores-like relation, grouped by user.
+     */
+    static final String AGGREGATE = "SELECT user_id, MAX(score), COUNT(*), SUM(score), MAX(score_date) FROM ";
+
+    private final EntityManager em;
+
+    public UserStatsDao(@Autowired EntityManager em) {
+        this.em = em;
+    }
+
+    public UserStats getStats(Long userId) {
+        UserStats stats = em.find(UserStats.class, userId);
+        return stats == null ? new UserStats(userId) : stats;
+    }
+
+    public void addScore(Long userId, int score, Timestamp scoreDate) {
+        em.createNativeQuery(INSERT + "VALUES (:user, :score, 1, :score, :date)" + MERGE)
+                .setParameter("user", userId)
+                .setParameter("score", score)
+                .setParameter("date", scoreDate)
+                .executeUpdate();
+    }
+
+    /**
+     * Adds the scores predating user_stats of the next chunk of users.
+     *
+     * @return false once all the users are processed
+     */
+    public boolean backfillChunk(int chunkSize) {
+        Object[] state = (Object[]) em.createNativeQuery(
+                "SELECT score_watermark, last_user_id, done FROM user_stats_backfill WHERE id = 1 FOR UPDATE")
+                .getSingleResult();
+        if ((Boolean) state[2]) {
+            return false;
+        }
+        int watermark = ((Number) state[0]).intValue();
+        int from = ((Number) state[1]).intValue();
+
+        @SuppressWarnings("unchecked")
+        List<Number> chunk = em.createNativeQuery("SELECT id FROM users WHERE id > :from ORDER BY id LIMIT :limit")
+                .setParameter("from", from)
+                .setParameter("limit", chunkSize)
+                .getResultList();
+        if (chunk.isEmpty()) {
+            em.createNativeQuery("UPDATE user_stats_backfill SET done = TRUE WHERE id = 1").executeUpdate();
+            return false;
+        }
+        int to = chunk.get(chunk.size() - 1).intValue();
+
+        em.createNativeQuery(INSERT + AGGREGATE
+                .concat("scores WHERE user_id > :from AND user_id <= :to AND id <= :watermark GROUP BY user_id")
+                .concat(MERGE))
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("watermark", watermark)
+                .executeUpdate();
+        em.createNativeQuery("UPDATE user_stats_backfill SET last_user_id = :to WHERE id = 1")
+                .setParameter("to", to)
+                .executeUpdate();
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.td.daos;
+
+import com.td.domain.User;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable part of a user needed outside of the persistence context: by the game and the websocket transport.
+ */
+public final class UserView {
+
+    @NotNull
+    private final Long id;
+
+    @NotNull
+    private final String nickname;
+
+    @NotNull
+    private final String gameClass;
+
+    public UserView(@NotNull Long id, @NotNull String nickname, @NotNull String gameClass) {
+        this.id = id;
+        this.nickname = nickname;
+        this.gameClass = gameClass;
+    }
+
+    public static UserView of(@NotNull User user) {
+        final String gameClass = user.getProfile() == null ? "" : user.getProfile().getGameClass();
+        return new UserView(user.getId(), user.getNickname(), gameClass);
+    }
+
+    @NotNull
+    public Long getId() {
+        return id;
+    }
+
+    @NotNull
+    public String getNickname() {
+        return nickname;
+    }
+
+    @NotNull
+    public String getGameClass() {
+        return gameClass;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return id.equals(((UserView) obj).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
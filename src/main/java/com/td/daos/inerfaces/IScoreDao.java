@@ -3,7 +3,9 @@ package com.td.daos.inerfaces;
 import com.td.domain.Score;
 import com.td.domain.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface IScoreDao {
 
@@ -14,5 +16,7 @@ public interface IScoreDao {
 
     List<Score> getScoresList(int limit);
 
+    Map<Long, Double> getAverageScores(Collection<Long> userIds);
+
 
 }
@@ -2,6 +2,7 @@ package com.td.daos.inerfaces;
 
 import com.td.domain.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface IUserDao {
@@ -19,6 +20,8 @@ public interface IUserDao {
 
     List<User> getUsersByNicknames(List<String> nicknames);
 
+    List<User> getUsersByIds(Collection<Long> ids);
+
     User createUser(String nickname, String email, String password, String gameClass);
 
     User storeUser(User user);
@@ -0,0 +1,51 @@
+package com.td.domain;
+
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Aggregates of the scores of a user, maintained by the score writers, see {@link com.td.daos.UserStatsDao}.
+ */
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+    @Id
+    private Long userId;
+
+    private int bestScore;
+
+    private int gamesPlayed;
+
+    private long totalScore;
+
+    private OffsetDateTime lastPlayed;
+
+    public UserStats() {
+        this.userId = 0L;
+    }
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public OffsetDateTime getLastPlayed() {
+        return lastPlayed;
+    }
+}
@@ -0,0 +1,45 @@
+package com.td.dtos;
+
+import com.td.daos.Leaderboard;
+
+public class RankDto {
+    private long userId;
+    private String nickname;
+    private int rank;
+    private int total;
+    private long scoreId;
+    private int scores;
+
+    public RankDto(Long userId, String nickname, Leaderboard.UserRank rank) {
+        this.userId = userId;
+        this.nickname = nickname;
+        this.rank = rank.getRank();
+        this.total = rank.getTotal();
+        this.scoreId = rank.getBest().getScoreId();
+        this.scores = rank.getBest().getScore();
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getNickname() {
+        return nickname;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public long getScoreId() {
+        return scoreId;
+    }
+
+    public int getScores() {
+        return scores;
+    }
+}
@@ -1,5 +1,6 @@
 package com.td.dtos;
 
+import com.td.daos.LeaderboardEntry;
 import com.td.domain.Score;
 
 public class ScoreDto {
@@ -13,6 +14,12 @@ public class ScoreDto {
         this.scores = score.getScore();
     }
 
+    public ScoreDto(LeaderboardEntry entry, String nickname) {
+        this.scoreId = entry.getScoreId();
+        this.nickname = nickname;
+        this.scores = entry.getScore();
+    }
+
     public long getScoreId() {
         return scoreId;
     }
@@ -2,9 +2,11 @@ package com.td.dtos;
 
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.td.daos.LeaderboardEntry;
 import com.td.domain.Score;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ScoresPageDto {
@@ -16,6 +18,16 @@ public class ScoresPageDto {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Entries of users missing from the nicknames map are skipped.
+     */
+    public ScoresPageDto(List<LeaderboardEntry> entries, Map<Long, String> nicknames) {
+        this.scores = entries.stream()
+                .filter(entry -> nicknames.containsKey(entry.getUserId()))
+                .map(entry -> new ScoreDto(entry, nicknames.get(entry.getUserId())))
+                .collect(Collectors.toList());
+    }
+
     @JsonProperty("scores")
     public List<ScoreDto> getScores() {
         return scores;
@@ -0,0 +1,48 @@
+package com.td.dtos;
+
+import com.td.domain.UserStats;
+
+public class UserStatsDto {
+    private long userId;
+    private int bestScore;
+    private int gamesPlayed;
+    private long totalScore;
+    private double averageScore;
+    private Long lastPlayed;
+
+    public UserStatsDto(UserStats stats) {
+        this.userId = stats.getUserId();
+        this.bestScore = stats.getBestScore();
+        this.gamesPlayed = stats.getGamesPlayed();
+        this.totalScore = stats.getTotalScore();
+        this.averageScore = stats.getGamesPlayed() == 0 ? 0 : (double) stats.getTotalScore() / stats.getGamesPlayed();
+        this.lastPlayed = stats.getLastPlayed() == null ? null : stats.getLastPlayed().toInstant().toEpochMilli();
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public double getAverageScore() {
+        return averageScore;
+    }
+
+    /**
+     * Epoch millis, null if the user has not played yet.
+     */
+    public Long getLastPlayed() {
+        return lastPlayed;
+    }
+}
@@ -0,0 +1,59 @@
+package com.td.game;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class FixedRateTickScheduler implements TickScheduler {
+
+    private final long periodMs;
+    private final long periodNanos;
+    private final int maxCatchUpTicks;
+
+    @NotNull
+    private final TickStats stats;
+
+    private long nextDeadline;
+
+    public FixedRateTickScheduler(long periodMs, int maxCatchUpTicks, @NotNull TickStats stats) {
+        this.periodMs = periodMs;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.stats = stats;
+    }
+
+    @Override
+    public void start() {
+        nextDeadline = System.nanoTime();
+    }
+
+    @Override
+    public long awaitNextTick() {
+        nextDeadline += periodNanos;
+        long lateness = System.nanoTime() - nextDeadline;
+        if (lateness > 0) {
+            stats.onOverrun(lateness);
+            long behind = lateness / periodNanos;
+            if (behind > maxCatchUpTicks) {
+                long skipped = behind - maxCatchUpTicks;
+                stats.onSkipped(skipped);
+                nextDeadline += skipped * periodNanos;
+            }
+        } else {
+            parkUntil(nextDeadline);
+        }
+        stats.onTick();
+        return periodMs;
+    }
+
+    private void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.td.game;
 
+import com.td.daos.UserView;
 import com.td.game.services.TowerManager;
 import org.jetbrains.annotations.NotNull;
 
@@ -7,22 +8,36 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class GameContext {
 
+    public static final long DEFAULT_TICK_PERIOD = 50;
+
     private final Set<GameSession> sessions;
-    private final Queue<Long> waiters;
     private final Queue<TowerManager.TowerOrder> towerOrders;
-    private final StampedLock queueLock;
+    private final Queue<GameSession> incomingSessions;
+    private final Queue<Set<UserView>> lobbies;
+    private final AtomicReference<GameContext> stealRequest;
+    private final long tickPeriod;
+    private final TickStats tickStats;
+    private final TickMetrics tickMetrics;
     private long timeBuffer;
+    private volatile long load;
 
+    public GameContext() {
+        this(DEFAULT_TICK_PERIOD);
+    }
 
-    public GameContext(StampedLock queueLock) {
-        this.queueLock = queueLock;
+    public GameContext(long tickPeriod) {
+        this.tickPeriod = tickPeriod;
+        this.tickStats = new TickStats();
+        this.tickMetrics = new TickMetrics();
         this.towerOrders = new ConcurrentLinkedQueue<>();
+        this.incomingSessions = new ConcurrentLinkedQueue<>();
+        this.lobbies = new ConcurrentLinkedQueue<>();
+        this.stealRequest = new AtomicReference<>();
         this.sessions = ConcurrentHashMap.newKeySet();
-        this.waiters = new ConcurrentLinkedQueue<>();
         this.timeBuffer = 0L;
     }
 
@@ -30,10 +45,6 @@ public class GameContext {
         sessions.add(session);
     }
 
-    public void addWaiter(Long id) {
-        waiters.add(id);
-    }
-
     public void addTowerOrder(TowerManager.TowerOrder towerOrder) {
         towerOrders.add(towerOrder);
     }
@@ -42,10 +53,6 @@ public class GameContext {
         return this.sessions;
     }
 
-    public Queue<Long> getWaiters() {
-        return this.waiters;
-    }
-
     public Queue<TowerManager.TowerOrder> getTowerOrders() {
         return towerOrders;
     }
@@ -54,6 +61,41 @@ public class GameContext {
         sessions.remove(session);
     }
 
+    public void offerSession(@NotNull GameSession session) {
+        incomingSessions.add(session);
+    }
+
+    public void adoptIncomingSessions() {
+        GameSession session;
+        while ((session = incomingSessions.poll()) != null) {
+            sessions.add(session);
+        }
+    }
+
+    public void offerLobby(@NotNull Set<UserView> lobby) {
+        lobbies.add(lobby);
+    }
+
+    public Set<UserView> pollLobby() {
+        return lobbies.poll();
+    }
+
+    public boolean requestSteal(@NotNull GameContext thief) {
+        return stealRequest.compareAndSet(null, thief);
+    }
+
+    public GameContext pollStealRequest() {
+        return stealRequest.getAndSet(null);
+    }
+
+    public long getLoad() {
+        return load;
+    }
+
+    public void setLoad(long load) {
+        this.load = load;
+    }
+
     public long updateTimeBuffer(long time) {
         long delta = time - timeBuffer;
         timeBuffer = time;
@@ -64,28 +106,26 @@ public class GameContext {
         this.timeBuffer = timeBuffer;
     }
 
-    public int getSessionsSize() {
-        return this.sessions.size();
+    public long getTickPeriod() {
+        return tickPeriod;
     }
 
-    public int getWaitersQueueLength() {
-        return this.waiters.size();
+    public TickStats getTickStats() {
+        return tickStats;
     }
 
-    public long lockQueue() {
-        return queueLock.readLock();
+    public TickMetrics getTickMetrics() {
+        return tickMetrics;
     }
 
-    public void unlockQueue(long stamp) {
-        queueLock.unlockRead(stamp);
+    public int getSessionsSize() {
+        return this.sessions.size();
     }
 
-    public void clearWaitersQueue() {
-        long stamp = queueLock.writeLock();
-        try {
-            waiters.clear();
-        } finally {
-            queueLock.unlockWrite(stamp);
-        }
+    /**
+     * Sessions including the ones handed over and the lobbies not started yet.
+     */
+    public int getPendingSessionsSize() {
+        return this.sessions.size() + this.incomingSessions.size() + this.lobbies.size();
     }
 }
@@ -1,26 +1,33 @@
 package com.td.game;
 
+import com.td.game.services.SessionBalancerService;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Clock;
-
 
 public class GameExecutor implements Runnable {
 
-    private static final long STEP_TIME = 50;
     private final Logger logger = LoggerFactory.getLogger(GameExecutor.class);
 
     @NotNull
     private final GameManager gameManager;
     private final GameContext context;
 
-    private Clock clock = Clock.systemDefaultZone();
+    @NotNull
+    private final TickScheduler tickScheduler;
+
+    @NotNull
+    private final SessionBalancerService balancer;
 
-    public GameExecutor(@NotNull GameManager gameManager, GameContext context) {
+    public GameExecutor(@NotNull GameManager gameManager,
+                        GameContext context,
+                        @NotNull TickScheduler tickScheduler,
+                        @NotNull SessionBalancerService balancer) {
         this.gameManager = gameManager;
         this.context = context;
+        this.tickScheduler = tickScheduler;
+        this.balancer = balancer;
     }
 
     @Override
@@ -29,23 +36,19 @@ public class GameExecutor implements Runnable {
     }
 
     public void gameCycle() {
-        long lastTickTime = STEP_TIME;
-        context.setTimeBuffer(STEP_TIME);
-
-        while (true) {
-            long before = clock.millis();
-            gameManager.gameStep(lastTickTime, context);
-
-            long after = clock.millis();
+        long gameTime = context.getTickPeriod();
+        context.setTimeBuffer(gameTime);
+        tickScheduler.start();
 
-            final long sleepingTime = Math.max(0, STEP_TIME - (after - before));
+        while (!Thread.currentThread().isInterrupted()) {
             try {
-                Thread.sleep(sleepingTime);
-            } catch (InterruptedException e) {
-                logger.error("Thread was interrupted: ", e);
+                gameManager.gameStep(gameTime, context);
+                balancer.balance(context);
+            } catch (RuntimeException e) {
+                logger.error("Unhandled exception in game step: ", e);
             }
-            long afterSleep = clock.millis();
-            lastTickTime += afterSleep - before;
+            gameTime += tickScheduler.awaitNextTick();
         }
+        logger.info("Game executor was interrupted, thread {}", Thread.currentThread().getId());
     }
 }
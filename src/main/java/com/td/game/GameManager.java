@@ -1,9 +1,7 @@
 package com.td.game;
 
-import com.td.daos.UserDao;
-import com.td.domain.User;
+import com.td.daos.UserView;
 import com.td.game.services.*;
-import com.td.websocket.TransportService;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,82 +16,53 @@ public class GameManager {
     @NotNull
     private final Logger log = LoggerFactory.getLogger(GameManager.class);
 
-
-    private static final int GAME_LOBBY_SIZE = 2;
-
     @NotNull
     private final GameSessionService gameSessionService;
 
-    @NotNull
-    private final ServerSnaphotService serverSnaphotService;
-
-    @NotNull
-    private final UserDao userDao;
-
-    @NotNull
-    private final MonsterWaveProcessorService waveProcessor;
-
     @NotNull
     private final TowerManager towerManager;
 
     @NotNull
-    private final TowerShootingService towerShootingService;
+    private final SessionStepService sessionStepService;
 
     @NotNull
-    private final TransportService transportService;
+    private final MatchmakingService matchmakingService;
 
 
     public GameManager(@NotNull GameSessionService gameSessionService,
-                       @NotNull ServerSnaphotService serverSnaphotService,
-                       @NotNull UserDao userDao,
-                       @NotNull MonsterWaveProcessorService waveProcessor,
                        @NotNull TowerManager towerManager,
-                       @NotNull TransportService transportService,
-                       @NotNull TowerShootingService towerShootingService) {
+                       @NotNull SessionStepService sessionStepService,
+                       @NotNull MatchmakingService matchmakingService) {
         this.gameSessionService = gameSessionService;
-        this.serverSnaphotService = serverSnaphotService;
-        this.userDao = userDao;
-        this.waveProcessor = waveProcessor;
         this.towerManager = towerManager;
-        this.towerShootingService = towerShootingService;
-        this.transportService = transportService;
+        this.sessionStepService = sessionStepService;
+        this.matchmakingService = matchmakingService;
     }
 
-    public void tryStartGameSession(GameContext context) {
-        long stamp = context.lockQueue();
-        try {
-            Queue<Long> waiters = context.getWaiters();
-            if (waiters.size() < GAME_LOBBY_SIZE) {
-                return;
-            }
-
-            Set<User> matched = new HashSet<>();
-            while (waiters.size() > 0 && matched.size() < GAME_LOBBY_SIZE) {
-                Long userId = waiters.poll();
-
-                User user = userDao.getUserById(userId);
-                if (transportService.isConnected(user.getId())) {
-                    matched.add(user);
+    public void startLobbies(GameContext context) {
+        Set<UserView> lobby;
+        while ((lobby = context.pollLobby()) != null) {
+            try {
+                if (gameSessionService.startGame(lobby, context)) {
+                    log.trace("GameSession started in thread {}", Thread.currentThread().getId());
+                    continue;
                 }
-            }
-
-            if (matched.size() == GAME_LOBBY_SIZE && gameSessionService.startGame(matched, context)) {
-                log.trace("GameSession started in thread {}", Thread.currentThread().getId());
-            } else {
                 log.warn("Fail on start game session, thread {}", Thread.currentThread().getId());
-                matched.forEach(user -> context.getWaiters().add(user.getId()));
+            } catch (RuntimeException e) {
+                log.error("Exception on game start : {}", e);
             }
-
-        } catch (Exception e) {
-            log.error("Exception on game start : {}", e);
-            context.clearWaitersQueue();
-        } finally {
-            context.unlockQueue(stamp);
+            matchmakingService.returnLobby(lobby);
         }
     }
 
     public void gameStep(long time, GameContext context) {
-        tryStartGameSession(context);
+        TickMetrics metrics = context.getTickMetrics();
+        long start = System.nanoTime();
+        context.adoptIncomingSessions();
+        startLobbies(context);
+        long mark = System.nanoTime();
+        metrics.record(TickPhase.MATCHMAKING, mark - start);
+
         Set<GameSession> sessions = context.getSessions();
         List<GameSession> invalidSessions = new ArrayList<>();
         List<GameSession> finishedSessions = new ArrayList<>();
@@ -101,36 +70,63 @@ public class GameManager {
         long delta = context.updateTimeBuffer(time);
 
         Queue<TowerManager.TowerOrder> orders = context.getTowerOrders();
+        List<TowerManager.TowerOrder> deferred = new ArrayList<>();
         TowerManager.TowerOrder order;
         while ((order = orders.poll()) != null) {
             log.debug("Order for player {} in process", order.getPlayerId());
             GameSession session = gameSessionService.getSessionForUser(order.getPlayerId());
+            if (session == null) {
+                continue;
+            }
+            if (!sessions.contains(session)) {
+                forwardOrder(order, context, deferred);
+                continue;
+            }
             towerManager.processOrder(session, order);
         }
-
-        for (GameSession session : sessions) {
-            if (!gameSessionService.isValidSession(session)) {
-                log.warn("Session is invalid, id: ", session.getId());
+        orders.addAll(deferred);
+        metrics.record(TickPhase.TOWER_ORDERS, System.nanoTime() - mark);
+
+        List<GameSession> running = new ArrayList<>(sessions);
+        SessionStepService.StepResult[] results = sessionStepService.stepAll(running, delta, metrics);
+
+        long load = 0;
+        int monsters = 0;
+        int towers = 0;
+        for (int i = 0; i < results.length; ++i) {
+            GameSession session = running.get(i);
+            load += session.getTickCost();
+            if (results[i] == SessionStepService.StepResult.INVALID) {
                 invalidSessions.add(session);
-                continue;
-            }
-
-            waveProcessor.processPassedMonsters(session);
-            towerShootingService.reloadTowers(session, delta);
-            towerShootingService.processTowerShooting(session);
-            waveProcessor.processCleanup(session);
-            waveProcessor.processWave(session, delta);
-
-            if (session.isFinished()) {
-                log.trace("Session is finished, id: ", session.getId());
+            } else if (results[i] == SessionStepService.StepResult.FINISHED) {
                 finishedSessions.add(session);
             } else {
-                serverSnaphotService.sendServerSnapshot(session);
+                monsters += session.getCurrentWave().getRunning().size();
+                towers += session.getTowers().size();
             }
         }
+        context.setLoad(load);
 
         invalidSessions.forEach(session -> gameSessionService.terminateSession(session, CloseStatus.SERVER_ERROR, context));
         finishedSessions.forEach(session -> gameSessionService.finishGame(session, context));
+
+        metrics.record(TickPhase.TICK, System.nanoTime() - start);
+        metrics.finishTick(running.size(), monsters, towers);
+    }
+
+    /**
+     * Hands the order to the context owning the session. Orders for a session handed to this context
+     * and not adopted yet wait for the next tick.
+     */
+    private void forwardOrder(@NotNull TowerManager.TowerOrder order,
+                              @NotNull GameContext context,
+                              @NotNull List<TowerManager.TowerOrder> deferred) {
+        GameContext owner = gameSessionService.getContextForUser(order.getPlayerId());
+        if (owner == context) {
+            deferred.add(order);
+        } else if (owner != null) {
+            owner.addTowerOrder(order);
+        }
     }
 
 }
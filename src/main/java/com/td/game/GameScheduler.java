@@ -2,20 +2,22 @@ package com.td.game;
 
 
 import com.td.game.services.GameContextService;
+import com.td.game.services.MatchmakingService;
+import com.td.game.services.SessionBalancerService;
+import com.td.game.services.TickMetricsService;
 import com.td.game.services.TowerManager;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.locks.StampedLock;
 
 @Service
 public class GameScheduler {
@@ -26,24 +28,44 @@ public class GameScheduler {
 
     private final ExecutorService executorService;
 
-    private final StampedLock queueLock;
+    private final long tickPeriod;
+
+    private final int maxCatchUpTicks;
 
     @NotNull
     private final GameContextService gameContextService;
 
     @NotNull
     private GameManager gameManager;
+
+    @NotNull
+    private final SessionBalancerService balancer;
+
+    @NotNull
+    private final TickMetricsService tickMetricsService;
+
+    @NotNull
+    private final MatchmakingService matchmakingService;
     private final Logger logger = LoggerFactory.getLogger(GameScheduler.class);
 
 
     public GameScheduler(@NotNull GameContextService gameContextService,
-                         @NotNull GameManager gameManager) {
+                         @NotNull GameManager gameManager,
+                         @NotNull SessionBalancerService balancer,
+                         @NotNull TickMetricsService tickMetricsService,
+                         @NotNull MatchmakingService matchmakingService,
+                         @Value("${game.tick.period-ms:50}") long tickPeriod,
+                         @Value("${game.tick.max-catch-up:3}") int maxCatchUpTicks) {
         this.gameContextService = gameContextService;
         this.gameManager = gameManager;
+        this.balancer = balancer;
+        this.tickMetricsService = tickMetricsService;
+        this.matchmakingService = matchmakingService;
+        this.tickPeriod = tickPeriod;
+        this.maxCatchUpTicks = maxCatchUpTicks;
 
         this.gameContexts = new ArrayList<>();
         executorService = Executors.newFixedThreadPool(concurrencyLevel);
-        queueLock = new StampedLock();
     }
 
     @EventListener
@@ -51,28 +73,23 @@ public class GameScheduler {
 
         logger.info("Recieved event: {}", event);
         for (int i = 0; i < concurrencyLevel; ++i) {
-            GameContext context = new GameContext(queueLock);
+            GameContext context = new GameContext(tickPeriod);
             gameContexts.add(context);
-            executorService.submit(new GameExecutor(gameManager, context));
+            balancer.registerContext(context);
+            tickMetricsService.registerContext(context);
+            matchmakingService.registerContext(context);
+            TickScheduler tickScheduler = new FixedRateTickScheduler(tickPeriod, maxCatchUpTicks, context.getTickStats());
+            executorService.submit(new GameExecutor(gameManager, context, tickScheduler, balancer));
         }
-        logger.info("Game executros number: {}", concurrencyLevel);
+        logger.info("Game executros number: {}, tick period: {} ms", concurrencyLevel, tickPeriod);
     }
 
-    public void addWaiter(Long id) {
-        long stamp = queueLock.writeLock();
-        try {
-            GameContext context = Collections.min(gameContexts, (lhs, rhs) -> {
-                int sc = Integer.compare(lhs.getSessionsSize(), rhs.getSessionsSize());
-                if (sc == 0) {
-                    return Integer.compare(rhs.getWaitersQueueLength(), lhs.getWaitersQueueLength());
-                }
-                return sc;
-            });
-            context.addWaiter(id);
-        } finally {
-            queueLock.unlockWrite(stamp);
+    public List<TickStats> getTickStats() {
+        List<TickStats> stats = new ArrayList<>();
+        for (GameContext context : gameContexts) {
+            stats.add(context.getTickStats());
         }
-
+        return stats;
     }
 
     public void addTowerOrder(long xcoord, long ycoord, Integer towerClass, Long playerId) {
@@ -3,6 +3,8 @@ package com.td.game;
 import com.td.game.domain.*;
 import com.td.game.gameobjects.Path;
 import com.td.game.gameobjects.Tower;
+import com.td.game.resource.ResourceSnapshot;
+import com.td.game.snapshots.SnapshotHistory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +21,7 @@ public class GameSession {
     private final GameMap gameMap;
     private final List<Tower> towers;
     private final List<Area> areas;
+    private final TowerRangeIndex rangeIndex;
     private Wave currentWave;
     private int waveNumber = 0;
     private int hp = 0;
@@ -26,12 +29,20 @@ public class GameSession {
     private final List<Path> paths;
     private List<ShotEvent> shotEvents;
 
+    private final ResourceSnapshot resources;
+
+    private final SnapshotHistory snapshotHistory = new SnapshotHistory();
+
+    private long tickCost;
+    private long lastMigrationTime;
+
     public GameSession(List<Player> players,
                        Map<Long, PlayerClass> playersClasses,
                        GameMap gameMap,
                        Wave currentWave,
                        List<Path> paths,
-                       GameParams params) {
+                       GameParams params,
+                       ResourceSnapshot resources) {
         this.players = players;
         this.playersClasses = playersClasses;
         this.id = ID_SOURCE.getAndIncrement();
@@ -39,8 +50,10 @@ public class GameSession {
         this.towers = new ArrayList<>();
         this.shotEvents = new ArrayList<>();
         this.areas = new ArrayList<>();
+        this.rangeIndex = new TowerRangeIndex(paths);
         this.currentWave = currentWave;
         this.paths = paths;
+        this.resources = resources;
         this.hp = params.getBaseMaxHp();
         this.players.forEach(player -> player.setMoney(params.getInitialMoney()));
     }
@@ -109,6 +122,13 @@ public class GameSession {
         this.currentWave = currentWave;
     }
 
+    /**
+     * Resources the session was created with, they do not change when the resources are reloaded.
+     */
+    public ResourceSnapshot getResources() {
+        return resources;
+    }
+
     public List<Path> getPaths() {
         return paths;
     }
@@ -119,6 +139,11 @@ public class GameSession {
 
     public void addArea(Area area) {
         areas.add(area);
+        rangeIndex.add(area);
+    }
+
+    public TowerRangeIndex getRangeIndex() {
+        return rangeIndex;
     }
 
     public void setShotEvents(List<ShotEvent> shotEvents) {
@@ -133,4 +158,25 @@ public class GameSession {
         return shotEvents;
     }
 
+    public SnapshotHistory getSnapshotHistory() {
+        return snapshotHistory;
+    }
+
+    public void recordTickCost(long nanos) {
+        final int smoothingShift = 3;
+        tickCost += (nanos - tickCost) >> smoothingShift;
+    }
+
+    public long getTickCost() {
+        return tickCost;
+    }
+
+    public long getLastMigrationTime() {
+        return lastMigrationTime;
+    }
+
+    public void setLastMigrationTime(long lastMigrationTime) {
+        this.lastMigrationTime = lastMigrationTime;
+    }
+
 }
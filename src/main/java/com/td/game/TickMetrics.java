@@ -0,0 +1,183 @@
+package com.td.game;
+
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per context timing of the {@link TickPhase}s. Phase durations are accumulated during a tick, possibly from
+ * several threads, and recorded once per tick by {@link #finishTick}. {@link #rollInterval} closes an interval
+ * without blocking the game thread, reports show the last closed interval and leave the histograms as they are.
+ */
+public class TickMetrics {
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final TickPhase[] PHASES = TickPhase.values();
+
+    private final LongAdder[] current = new LongAdder[PHASES.length];
+    private final Recorder[] recorders = new Recorder[PHASES.length];
+    private final Histogram[] totals = new Histogram[PHASES.length];
+    private final Histogram[] recent = new Histogram[PHASES.length];
+
+    @Nullable
+    private volatile Timer[] timers;
+
+    private volatile int sessions;
+    private volatile int monsters;
+    private volatile int towers;
+
+    public TickMetrics() {
+        for (TickPhase phase : PHASES) {
+            current[phase.ordinal()] = new LongAdder();
+            recorders[phase.ordinal()] = new Recorder(MAX_TRACKED_NANOS, SIGNIFICANT_DIGITS);
+            totals[phase.ordinal()] = new Histogram(MAX_TRACKED_NANOS, SIGNIFICANT_DIGITS);
+            recent[phase.ordinal()] = recorders[phase.ordinal()].getIntervalHistogram();
+        }
+    }
+
+    public void record(@NotNull TickPhase phase, long nanos) {
+        current[phase.ordinal()].add(nanos);
+    }
+
+    public void finishTick(int sessionsCount, int monstersCount, int towersCount) {
+        final Timer[] bound = timers;
+        for (TickPhase phase : PHASES) {
+            final long nanos = current[phase.ordinal()].sumThenReset();
+            recorders[phase.ordinal()].recordValue(Math.min(nanos, MAX_TRACKED_NANOS));
+            if (bound != null) {
+                bound[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        this.sessions = sessionsCount;
+        this.monsters = monstersCount;
+        this.towers = towersCount;
+    }
+
+    /**
+     * Also records every phase to the given timers, indexed by {@link TickPhase#ordinal()}.
+     */
+    public void bindTimers(@NotNull Timer[] phaseTimers) {
+        this.timers = phaseTimers.clone();
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    public int getMonsters() {
+        return monsters;
+    }
+
+    public int getTowers() {
+        return towers;
+    }
+
+    /**
+     * Closes the current interval, its distributions become the recent ones of the reports.
+     */
+    public synchronized void rollInterval() {
+        for (TickPhase phase : PHASES) {
+            final int index = phase.ordinal();
+            recent[index] = recorders[index].getIntervalHistogram(recent[index]);
+            totals[index].add(recent[index]);
+        }
+    }
+
+    /**
+     * Per phase distributions of the last closed interval and of all closed intervals.
+     */
+    public synchronized Map<TickPhase, PhaseReport> report() {
+        final Map<TickPhase, PhaseReport> report = new EnumMap<>(TickPhase.class);
+        for (TickPhase phase : PHASES) {
+            final int index = phase.ordinal();
+            report.put(phase, new PhaseReport(recent[index], totals[index]));
+        }
+        return report;
+    }
+
+    public static class PhaseReport {
+        private final Summary recent;
+        private final Summary total;
+
+        PhaseReport(@NotNull Histogram recent, @NotNull Histogram total) {
+            this.recent = new Summary(recent);
+            this.total = new Summary(total);
+        }
+
+        public Summary getRecent() {
+            return recent;
+        }
+
+        public Summary getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Distribution of per tick durations, in microseconds.
+     */
+    public static class Summary {
+        private static final double P50 = 50;
+        private static final double P90 = 90;
+        private static final double P99 = 99;
+        private static final double P999 = 99.9;
+
+        private final long count;
+        private final double mean;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        Summary(@NotNull Histogram histogram) {
+            this.count = histogram.getTotalCount();
+            this.mean = micros(histogram.getMean());
+            this.p50 = micros(histogram.getValueAtPercentile(P50));
+            this.p90 = micros(histogram.getValueAtPercentile(P90));
+            this.p99 = micros(histogram.getValueAtPercentile(P99));
+            this.p999 = micros(histogram.getValueAtPercentile(P999));
+            this.max = micros(histogram.getMaxValue());
+        }
+
+        private static double micros(double nanos) {
+            return nanos / TimeUnit.MICROSECONDS.toNanos(1);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getP999() {
+            return p999;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+}
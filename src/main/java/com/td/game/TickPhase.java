@@ -0,0 +1,20 @@
+package com.td.game;
+
+/**
+ * Phases of {@link GameManager#gameStep}. Per session phases are summed over the sessions of a context.
+ */
+public enum TickPhase {
+    MATCHMAKING,
+    TOWER_ORDERS,
+    PASSED_MONSTERS,
+    RELOAD,
+    SHOOTING,
+    CLEANUP,
+    WAVE,
+    SNAPSHOT,
+    TICK;
+
+    public String getTag() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
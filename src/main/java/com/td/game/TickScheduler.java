@@ -0,0 +1,13 @@
+package com.td.game;
+
+public interface TickScheduler {
+
+    void start();
+
+    /**
+     * Blocks until the next tick is due.
+     *
+     * @return game time in milliseconds that the next tick has to simulate
+     */
+    long awaitNextTick();
+}
@@ -0,0 +1,41 @@
+package com.td.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+public class TickStats {
+
+    private final AtomicLong ticks = new AtomicLong(0);
+    private final AtomicLong overruns = new AtomicLong(0);
+    private final AtomicLong skippedTicks = new AtomicLong(0);
+    private final LongAccumulator maxLatenessNanos = new LongAccumulator(Math::max, 0);
+
+    public void onTick() {
+        ticks.incrementAndGet();
+    }
+
+    public void onOverrun(long latenessNanos) {
+        overruns.incrementAndGet();
+        maxLatenessNanos.accumulate(latenessNanos);
+    }
+
+    public void onSkipped(long count) {
+        skippedTicks.addAndGet(count);
+    }
+
+    public long getTicks() {
+        return ticks.get();
+    }
+
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks.get();
+    }
+
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos.get();
+    }
+}
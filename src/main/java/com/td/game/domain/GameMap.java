@@ -6,39 +6,62 @@ import com.td.game.gameobjects.GameObject;
 import com.td.game.resource.Resource;
 import com.td.game.snapshots.Snapshot;
 import com.td.game.snapshots.Snapshotable;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
+/**
+ * Dense width x height grid of tiles stored row by row. Cells without a tile in the map resource are empty
+ * and never free. Occupancy is tracked in a bitset that is kept in sync by {@link #placeObject}.
+ * The tiles are copied from the resource, which is shared by every map built from it.
+ */
 public class GameMap implements Snapshotable<GameMap> {
-    private Map<Point<Long>, Tile> gameMap;
+    private final Tile[] tiles;
+    private final BitSet occupied;
     private final long height;
     private final long width;
 
     public GameMap(GameMapResource resource) {
         this.width = resource.width;
         this.height = resource.height;
-        this.gameMap = resource.tiles
-                .stream()
-                .collect(Collectors.toMap(Tile::getTileCoord, Function.identity()));
+        this.tiles = new Tile[Math.toIntExact(width * height)];
+        this.occupied = new BitSet(tiles.length);
+        for (Tile tile : resource.tiles) {
+            final Point<Long> coord = tile.getTileCoord();
+            if (!isInside(coord.getXcoord(), coord.getYcoord())) {
+                throw new IllegalArgumentException("Tile " + coord.getXcoord() + ":" + coord.getYcoord()
+                        + " is outside of the " + width + "x" + height + " map");
+            }
+            tiles[index(coord.getXcoord(), coord.getYcoord())] = new Tile(coord.getXcoord(), coord.getYcoord(), tile.getTileType());
+        }
     }
 
     public void setPathTiles(List<PathPoint> path) {
         for (PathPoint point : path) {
             Tile tile = point.getTile();
-            gameMap.compute(tile.getTileCoord(), (coord, current) -> {
-                current.setTileType(tile.getTileType());
-                return current;
-            });
+            Point<Long> coord = tile.getTileCoord();
+            Tile current = getTile(coord.getXcoord(), coord.getYcoord());
+            if (current == null) {
+                throw new IllegalArgumentException("No tile under path point " + coord.getXcoord() + ":" + coord.getYcoord());
+            }
+            current.setTileType(tile.getTileType());
         }
+    }
 
+    public boolean isInside(long xcoord, long ycoord) {
+        return xcoord >= 0 && ycoord >= 0 && xcoord < width && ycoord < height;
     }
 
+    @Nullable
+    public Tile getTile(long xcoord, long ycoord) {
+        return isInside(xcoord, ycoord) ? tiles[index(xcoord, ycoord)] : null;
+    }
 
+    @Nullable
     public Tile getTile(Point<Long> coords) {
-        return gameMap.get(coords);
+        return getTile(coords.getXcoord(), coords.getYcoord());
     }
 
     public long getHeight() {
@@ -55,21 +78,29 @@ public class GameMap implements Snapshotable<GameMap> {
     }
 
     public boolean isTileFree(long xcoord, long ycoord) {
-        Tile tile = gameMap.get(new Point<>(xcoord, ycoord));
-        return tile != null && tile.getOwner() == null;
+        return getTile(xcoord, ycoord) != null && !occupied.get(index(xcoord, ycoord));
     }
 
-    public boolean placeObject(Point<Long> coord, GameObject obj) {
-        Tile tile = gameMap.get(coord);
-        if (tile == null || tile.getOwner() != null) {
+    public boolean isTileFree(Point<Long> coord) {
+        return isTileFree(coord.getXcoord(), coord.getYcoord());
+    }
+
+    public boolean placeObject(long xcoord, long ycoord, GameObject gameObject) {
+        if (!isTileFree(xcoord, ycoord)) {
             return false;
         }
-        tile.setOwner(obj);
+        final int index = index(xcoord, ycoord);
+        tiles[index].setOwner(gameObject);
+        occupied.set(index);
         return true;
     }
 
-    public boolean placeObject(long xcoord, long ycoord, GameObject gameObject) {
-        return placeObject(new Point<>(xcoord, ycoord), gameObject);
+    public boolean placeObject(Point<Long> coord, GameObject obj) {
+        return placeObject(coord.getXcoord(), coord.getYcoord(), obj);
+    }
+
+    private int index(long xcoord, long ycoord) {
+        return (int) (ycoord * width + xcoord);
     }
 
 
@@ -79,11 +110,12 @@ public class GameMap implements Snapshotable<GameMap> {
         private long width;
 
         public GameMapSnapshot(GameMap map) {
-            this.gameMap = map.gameMap
-                    .values()
-                    .stream()
-                    .map(Tile::getSnapshot)
-                    .collect(Collectors.toList());
+            this.gameMap = new ArrayList<>(map.tiles.length);
+            for (Tile tile : map.tiles) {
+                if (tile != null) {
+                    gameMap.add(tile.getSnapshot());
+                }
+            }
 
             this.height = map.height;
             this.width = map.width;
@@ -15,6 +15,13 @@ public class GameParams extends Resource {
         this.initialMoney = initialMoney;
     }
 
+    @Override
+    public void validate() {
+        if (baseMaxHp <= 0 || initialMoney < 0) {
+            throw new IllegalArgumentException("Game params need positive max hp and non negative start money");
+        }
+    }
+
     public int getBaseMaxHp() {
         return baseMaxHp;
     }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.td.game.resource.Resource;
 
+import java.util.Collections;
 import java.util.List;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "class")
@@ -17,7 +18,7 @@ public abstract class PlayerClass extends Resource {
 
     @JsonCreator
     PlayerClass(List<Integer> availableTowers) {
-        this.availableTowers = availableTowers;
+        this.availableTowers = Collections.unmodifiableList(availableTowers);
     }
 
     public List<Integer> getAvailableTowers() {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.td.game.resource.Resource;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,10 +17,11 @@ public class TextureAtlas extends Resource {
 
     @JsonCreator
     TextureAtlas(@JsonProperty("atlas") List<DisplayInfo> displayInfoList) {
-        this.atlas = new HashMap<>();
+        final Map<Integer, DisplayInfo> infos = new HashMap<>();
         for (DisplayInfo info : displayInfoList) {
-            atlas.put(info.getType(), info);
+            infos.put(info.getType(), info);
         }
+        this.atlas = Collections.unmodifiableMap(infos);
     }
 
     public DisplayInfo getDisplayInfoFor(Integer type) {
@@ -0,0 +1,48 @@
+package com.td.game.domain;
+
+import com.td.game.gameobjects.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tower range areas bucketed by the path points they cover, filled from the precomputed
+ * {@link com.td.game.gameobjects.Tower#getPathCoverage() path coverage} of each tower.
+ * Areas of a point are kept in the order they were added.
+ */
+public class TowerRangeIndex {
+    private final int[] offsets;
+    private final List<List<Area>> buckets;
+
+    public TowerRangeIndex(List<Path> paths) {
+        this.offsets = new int[paths.size() + 1];
+        for (int i = 0; i < paths.size(); ++i) {
+            offsets[i + 1] = offsets[i] + paths.get(i).getPathPoints().size();
+        }
+        this.buckets = new ArrayList<>(Collections.nCopies(offsets[paths.size()], null));
+    }
+
+    public void add(Area area) {
+        final int[][] coverage = area.getTower().getPathCoverage();
+        for (int pathId = 0; pathId < coverage.length; ++pathId) {
+            final int[] ranges = coverage[pathId];
+            for (int range = 0; range < ranges.length; range += 2) {
+                for (int index = ranges[range]; index <= ranges[range + 1]; ++index) {
+                    final int key = offsets[pathId] + index;
+                    List<Area> bucket = buckets.get(key);
+                    if (bucket == null) {
+                        bucket = new ArrayList<>();
+                        buckets.set(key, bucket);
+                    }
+                    bucket.add(area);
+                }
+            }
+        }
+    }
+
+    public List<Area> getAreas(int pathId, int index) {
+        final List<Area> bucket = buckets.get(offsets[pathId] + index);
+        return bucket == null ? Collections.emptyList() : bucket;
+    }
+}
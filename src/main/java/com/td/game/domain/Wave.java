@@ -1,17 +1,18 @@
 package com.td.game.domain;
 
 import com.td.game.gameobjects.Monster;
+import com.td.game.gameobjects.MonsterStore;
 import com.td.game.gameobjects.Path;
 import com.td.game.snapshots.Snapshot;
 import com.td.game.snapshots.Snapshotable;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Wave implements Snapshotable<Wave> {
-    private Queue<Monster> pending;
-    private Set<Monster> running = new HashSet<>();
-    private List<Monster> passed = new ArrayList<>();
+    private final MonsterStore store;
+    private final Queue<Monster> pending = new PendingView();
+    private final List<Monster> running = new RunningView();
+    private final List<Monster> passed = new PassedView();
 
     private WaveStatus status;
     private long localTimeBuffer;
@@ -19,14 +20,23 @@ public class Wave implements Snapshotable<Wave> {
 
     private final Map<Path, List<Monster>> pathBindings;
 
+    /**
+     * Read only view, the head is the next monster to enter.
+     */
     public Queue<Monster> getPending() {
         return pending;
     }
 
-    public Set<Monster> getRunning() {
+    /**
+     * Read only view.
+     */
+    public List<Monster> getRunning() {
         return running;
     }
 
+    /**
+     * Read only view.
+     */
     public List<Monster> getPassed() {
         return passed;
     }
@@ -40,6 +50,10 @@ public class Wave implements Snapshotable<Wave> {
         return pathBindings;
     }
 
+    public MonsterStore getStore() {
+        return store;
+    }
+
     public WaveStatus getStatus() {
         return status;
     }
@@ -59,12 +73,22 @@ public class Wave implements Snapshotable<Wave> {
         FINISHED
     }
 
-    public Wave(List<Monster> monsters, Map<Path, List<Monster>> pathBindings, long startDealy, long monsterEnterDelay) {
-        this.pending = new ArrayDeque<>(monsters);
+    public Wave(List<Monster> monsters,
+                List<Path> paths,
+                Map<Path, List<Monster>> pathBindings,
+                long startDealy,
+                long monsterEnterDelay) {
         this.monsterEnterDelay = monsterEnterDelay;
         this.status = WaveStatus.PENDING;
         this.localTimeBuffer = startDealy;
         this.pathBindings = pathBindings;
+        this.store = new MonsterStore(monsters.size(), paths);
+
+        final Map<Monster, Integer> pathIds = new HashMap<>();
+        pathBindings.forEach((path, bound) -> bound.forEach(monster -> pathIds.put(monster, paths.indexOf(path))));
+        for (int i = monsters.size() - 1; i >= 0; --i) {
+            store.addPending(monsters.get(i), pathIds.get(monsters.get(i)));
+        }
     }
 
     public void updatePendingTime(long ms) {
@@ -85,21 +109,24 @@ public class Wave implements Snapshotable<Wave> {
         localTimeBuffer += ms;
         if (localTimeBuffer >= monsterEnterDelay) {
             localTimeBuffer -= monsterEnterDelay;
-            Monster monster = pending.poll();
-            if (pending.isEmpty()) {
+            store.startNext();
+            if (store.getPendingCount() == 0) {
                 this.status = WaveStatus.RUNNING;
             }
-            if (monster != null) {
-                running.add(monster);
-            }
         }
     }
 
     public void passMonster(Monster monster) {
-        if (!running.remove(monster)) {
-            return;
-        }
-        passed.add(monster);
+        store.pass(monster);
+    }
+
+    /**
+     * Passes the monsters that reached the end of their path.
+     *
+     * @return total weight of the passed monsters
+     */
+    public int passArrivedMonsters() {
+        return store.passArrived();
     }
 
     public void tryToFinishWave() {
@@ -109,19 +136,82 @@ public class Wave implements Snapshotable<Wave> {
         if (status != WaveStatus.RUNNING) {
             return;
         }
-        if (pending.isEmpty() && running.isEmpty()) {
+        if (store.getPendingCount() == 0 && store.getRunningCount() == 0) {
             this.status = WaveStatus.FINISHED;
         }
     }
 
     public void passDeadMonsters() {
-        Iterator<Monster> iter = running.iterator();
-        while (iter.hasNext()) {
-            Monster monster = iter.next();
-            if (monster.getHp() <= 0) {
-                iter.remove();
-                passed.add(monster);
-            }
+        store.passDead();
+    }
+
+    public void moveRunning(long delta) {
+        store.moveRunning(delta);
+    }
+
+    private final class PendingView extends AbstractQueue<Monster> {
+        @Override
+        public Iterator<Monster> iterator() {
+            return new Iterator<Monster>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < store.getPendingCount();
+                }
+
+                @Override
+                public Monster next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return store.getPending(index++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return store.getPendingCount();
+        }
+
+        @Override
+        public boolean offer(Monster monster) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Monster poll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Monster peek() {
+            return store.getPendingCount() == 0 ? null : store.getPending(0);
+        }
+    }
+
+    private final class RunningView extends AbstractList<Monster> {
+        @Override
+        public Monster get(int index) {
+            return store.getRunning(index);
+        }
+
+        @Override
+        public int size() {
+            return store.getRunningCount();
+        }
+    }
+
+    private final class PassedView extends AbstractList<Monster> {
+        @Override
+        public Monster get(int index) {
+            return store.getPassed(index);
+        }
+
+        @Override
+        public int size() {
+            return store.getPassedCount();
         }
     }
 
@@ -134,20 +224,21 @@ public class Wave implements Snapshotable<Wave> {
         private long msToStart;
 
         public WaveSnapshot(Wave wave) {
-            this.passed = wave.passed
-                    .stream()
-                    .map(Monster::getSnapshot)
-                    .collect(Collectors.toList());
-
-            this.pending = wave.pending
-                    .stream()
-                    .map(Monster::getSnapshot)
-                    .collect(Collectors.toList());
-
-            this.running = wave.running
-                    .stream()
-                    .map(Monster::getSnapshot)
-                    .collect(Collectors.toList());
+            final MonsterStore store = wave.store;
+            this.passed = new ArrayList<>(store.getPassedCount());
+            for (int i = 0; i < store.getPassedCount(); ++i) {
+                passed.add(store.getPassed(i).getSnapshot());
+            }
+
+            this.pending = new ArrayList<>(store.getPendingCount());
+            for (int i = 0; i < store.getPendingCount(); ++i) {
+                pending.add(store.getPending(i).getSnapshot());
+            }
+
+            this.running = new ArrayList<>(store.getRunningCount());
+            for (int i = 0; i < store.getRunningCount(); ++i) {
+                running.add(store.getRunning(i).getSnapshot());
+            }
 
             this.status = wave.status.toString().toLowerCase();
             if (wave.status == WaveStatus.PENDING) {
@@ -11,13 +11,20 @@ import com.td.game.snapshots.Snapshotable;
 public class Monster extends GameObject implements Snapshotable<Monster> {
 
     private final Integer typeid;
+    private final int reward;
+    private final int weight;
+
+    /**
+     * Null until a wave's store adopts the monster, until then its values are kept in the fields below.
+     */
+    private MonsterStore store;
+    private int slot;
+
     private int hp;
     private double speed;
     private PathPoint coord;
-    private Point<Double> relativeCoord;
-
-    private int reward;
-    private int weight;
+    private double relx;
+    private double rely;
     private int vx;
     private int vy;
 
@@ -27,17 +34,53 @@ public class Monster extends GameObject implements Snapshotable<Monster> {
         this.hp = resource.hp;
         this.speed = resource.speed * timeScale;
         this.weight = resource.weight;
-        this.relativeCoord = new Point<>(0.0, 0.0);
         this.typeid = resource.typeid;
         this.reward = resource.reward;
     }
 
+    void attach(MonsterStore monsterStore, int monsterSlot) {
+        this.store = monsterStore;
+        this.slot = monsterSlot;
+    }
+
+    MonsterStore getStore() {
+        return store;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    double getSpeed() {
+        return store == null ? speed : store.getSpeed(slot);
+    }
+
+    double getRelx() {
+        return store == null ? relx : store.getRelx(slot);
+    }
+
+    double getRely() {
+        return store == null ? rely : store.getRely(slot);
+    }
+
+    int getVx() {
+        return store == null ? vx : store.getVx(slot);
+    }
+
+    int getVy() {
+        return store == null ? vy : store.getVy(slot);
+    }
+
     public int getHp() {
-        return hp;
+        return store == null ? hp : store.getHp(slot);
     }
 
     public void setHp(int hp) {
-        this.hp = hp;
+        if (store == null) {
+            this.hp = hp;
+        } else {
+            store.setHp(slot, hp);
+        }
     }
 
     @Override
@@ -46,47 +89,67 @@ public class Monster extends GameObject implements Snapshotable<Monster> {
     }
 
 
+    /**
+     * Monsters move as part of their wave, see {@link MonsterStore#moveRunning(long)}.
+     */
     public void move(long delta, PathPoint next) {
-        double newx = relativeCoord.getXcoord() + delta * vx * speed;
-        double newy = relativeCoord.getYcoord() + delta * vy * speed;
-        if (vx != 0 && Math.abs(newx) >= 1) {
-            if (newx <= -1) {
-                newx += 1;
-            } else {
-                newx -= 1;
-            }
-            setCoord(next);
-        } else if (vy != 0 && Math.abs(newy) >= 1) {
-            if (newy <= -1) {
-                newy += 1;
-            } else if (newy >= 1) {
-                newy -= 1;
-            }
-            setCoord(next);
+        if (store == null) {
+            throw new IllegalStateException("Monster " + getId() + " is not in a wave");
         }
-        relativeCoord.set(newx, newy);
+        store.move(slot, delta, next);
     }
 
     public void setCoord(PathPoint coord) {
-        this.coord = coord;
-        this.vx = coord.getDirections().getXcoord();
-        this.vy = coord.getDirections().getYcoord();
+        if (store == null) {
+            this.coord = coord;
+            this.vx = coord.getDirections().getXcoord();
+            this.vy = coord.getDirections().getYcoord();
+        } else {
+            store.setCoord(slot, coord);
+        }
     }
 
     public void setRelativeCoord(Point<Double> relativeCoord) {
-        this.relativeCoord = relativeCoord;
+        if (store == null) {
+            this.relx = relativeCoord.getXcoord();
+            this.rely = relativeCoord.getYcoord();
+        } else {
+            store.setRelative(slot, relativeCoord.getXcoord(), relativeCoord.getYcoord());
+        }
     }
 
     public void setVx(int vx) {
-        this.vx = vx;
+        if (store == null) {
+            this.vx = vx;
+        } else {
+            store.setVx(slot, vx);
+        }
     }
 
     public void setVy(int vy) {
-        this.vy = vy;
+        if (store == null) {
+            this.vy = vy;
+        } else {
+            store.setVy(slot, vy);
+        }
     }
 
     public PathPoint getCoord() {
-        return coord;
+        return store == null ? coord : store.getCoord(slot);
+    }
+
+    public int getPathIndex() {
+        if (store == null) {
+            return coord == null ? 0 : coord.getIndex();
+        }
+        return store.getPathIndex(slot);
+    }
+
+    /**
+     * Position of the monster's path in the session paths.
+     */
+    public int getPathId() {
+        return store == null ? 0 : store.getPath(slot);
     }
 
     public int getWeight() {
@@ -130,12 +193,14 @@ public class Monster extends GameObject implements Snapshotable<Monster> {
         public MonsterSnapshot(Monster monster) {
             final int timeScale = 1000;
             this.id = monster.getId();
+            final int vx = monster.getVx();
+            final int vy = monster.getVy();
             this.hp = monster.getHp();
-            this.speed = monster.speed * timeScale;
-            this.tileCoord = monster.coord.getTileCoord();
-            this.relativeCoord = monster.relativeCoord;
+            this.speed = monster.getSpeed() * timeScale;
+            this.tileCoord = monster.getCoord().getTileCoord();
+            this.relativeCoord = new Point<>(monster.getRelx(), monster.getRely());
             this.typeid = monster.typeid;
-            this.direction = Math.abs(2 * monster.vx) + monster.vx + Math.abs(monster.vy) + monster.vy;
+            this.direction = Math.abs(2 * vx) + vx + Math.abs(vy) + vy;
         }
 
         public Integer getTypeid() {
@@ -145,6 +210,13 @@ public class Monster extends GameObject implements Snapshotable<Monster> {
         public int getDirection() {
             return direction;
         }
+
+        public boolean hasSameState(MonsterSnapshot other) {
+            return hp == other.hp
+                    && direction == other.direction
+                    && tileCoord.equals(other.tileCoord)
+                    && relativeCoord.equals(other.relativeCoord);
+        }
     }
 
     public static class MonsterResource extends Resource {
@@ -167,6 +239,13 @@ public class Monster extends GameObject implements Snapshotable<Monster> {
             this.typeid = typeid;
         }
 
+        @Override
+        public void validate() {
+            if (hp <= 0 || speed <= 0 || weight < 0 || reward < 0) {
+                throw new IllegalArgumentException("Monster " + typeid + " needs positive hp and speed,"
+                        + " non negative weight and reward");
+            }
+        }
 
     }
 }
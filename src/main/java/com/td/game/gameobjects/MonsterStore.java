@@ -0,0 +1,377 @@
+package com.td.game.gameobjects;
+
+import com.td.game.domain.PathPoint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column storage of the monsters of a wave. Slots are split into three segments:
+ * [0, pendingEnd) pending, the next monster to enter sits at pendingEnd - 1,
+ * [pendingEnd, runningEnd) running and [runningEnd, size) passed.
+ * Status changes move the segment bounds and swap slots, {@link Monster} handles follow their slot.
+ * Running monsters are kept grouped by path and, within a path, the most advanced first.
+ * The order they entered in is kept aside, for targeting.
+ */
+public class MonsterStore {
+
+    private final Monster[] handles;
+    private final int[] hp;
+    private final double[] speed;
+    private final PathPoint[] coord;
+    private final int[] pathIndex;
+    private final double[] relx;
+    private final double[] rely;
+    private final int[] vx;
+    private final int[] vy;
+    private final int[] path;
+
+    private final List<List<PathPoint>> pathPoints;
+    private final boolean[][] finishPoints;
+    private final int[] pathFrom;
+    private final int[] pathTo;
+    private final Monster[] entered;
+
+    private int size;
+    private int enteredCount;
+    private int pendingEnd;
+    private int runningEnd;
+    private boolean ordered = true;
+
+    public MonsterStore(int capacity, @NotNull List<Path> paths) {
+        this.handles = new Monster[capacity];
+        this.hp = new int[capacity];
+        this.speed = new double[capacity];
+        this.coord = new PathPoint[capacity];
+        this.pathIndex = new int[capacity];
+        this.relx = new double[capacity];
+        this.rely = new double[capacity];
+        this.vx = new int[capacity];
+        this.vy = new int[capacity];
+        this.path = new int[capacity];
+        this.entered = new Monster[capacity];
+        this.pathPoints = new ArrayList<>(paths.size());
+        this.finishPoints = new boolean[paths.size()][];
+        for (int p = 0; p < paths.size(); ++p) {
+            final List<PathPoint> points = paths.get(p).getPathPoints();
+            pathPoints.add(points);
+            finishPoints[p] = new boolean[points.size()];
+            for (int index = 0; index < points.size(); ++index) {
+                finishPoints[p][index] = paths.get(p).getLastPoint().equals(points.get(index));
+            }
+        }
+        this.pathFrom = new int[paths.size()];
+        this.pathTo = new int[paths.size()];
+    }
+
+    /**
+     * Moves the monster into this store as pending. Monsters are added in reverse order of entering.
+     */
+    public void addPending(@NotNull Monster monster, int pathId) {
+        final int slot = size++;
+        handles[slot] = monster;
+        hp[slot] = monster.getHp();
+        speed[slot] = monster.getSpeed();
+        coord[slot] = monster.getCoord();
+        pathIndex[slot] = monster.getPathIndex();
+        relx[slot] = monster.getRelx();
+        rely[slot] = monster.getRely();
+        vx[slot] = monster.getVx();
+        vy[slot] = monster.getVy();
+        path[slot] = pathId;
+        pendingEnd = size;
+        runningEnd = size;
+        monster.attach(this, slot);
+    }
+
+    public int getPendingCount() {
+        return pendingEnd;
+    }
+
+    public int getRunningCount() {
+        return runningEnd - pendingEnd;
+    }
+
+    public int getPassedCount() {
+        return size - runningEnd;
+    }
+
+    public Monster getPending(int index) {
+        return handles[pendingEnd - 1 - index];
+    }
+
+    public Monster getRunning(int index) {
+        return handles[pendingEnd + index];
+    }
+
+    public Monster getPassed(int index) {
+        return handles[runningEnd + index];
+    }
+
+    /**
+     * Running monster by the order of entering, the earliest first.
+     */
+    public Monster getRunningByEntry(int index) {
+        if (enteredCount != getRunningCount()) {
+            compactEntered();
+        }
+        return entered[index];
+    }
+
+    public Monster get(int slot) {
+        return handles[slot];
+    }
+
+    public int getPathIndex(int slot) {
+        return pathIndex[slot];
+    }
+
+    int getPath(int slot) {
+        return path[slot];
+    }
+
+    /**
+     * First running slot of the path, running slots of a path are ordered by descending progress.
+     */
+    public int getRunningFrom(int pathId) {
+        ensureOrdered();
+        return pathFrom[pathId];
+    }
+
+    public int getRunningTo(int pathId) {
+        ensureOrdered();
+        return pathTo[pathId];
+    }
+
+    @Nullable
+    public Monster startNext() {
+        if (pendingEnd == 0) {
+            return null;
+        }
+        --pendingEnd;
+        ordered = false;
+        entered[enteredCount++] = handles[pendingEnd];
+        return handles[pendingEnd];
+    }
+
+    public boolean pass(@NotNull Monster monster) {
+        final int slot = monster.getSlot();
+        if (monster.getStore() != this || slot < pendingEnd || slot >= runningEnd) {
+            return false;
+        }
+        passSlot(slot);
+        return true;
+    }
+
+    public void passDead() {
+        for (int slot = runningEnd - 1; slot >= pendingEnd; --slot) {
+            if (hp[slot] <= 0) {
+                passSlot(slot);
+            }
+        }
+    }
+
+    /**
+     * Passes the running monsters standing on the tile of the last point of their path.
+     *
+     * @return total weight of the passed monsters
+     */
+    public int passArrived() {
+        int weight = 0;
+        for (int slot = runningEnd - 1; slot >= pendingEnd; --slot) {
+            if (finishPoints[path[slot]][pathIndex[slot]]) {
+                weight += handles[slot].getWeight();
+                passSlot(slot);
+            }
+        }
+        return weight;
+    }
+
+    public void moveRunning(long delta) {
+        for (int slot = pendingEnd; slot < runningEnd; ++slot) {
+            move(slot, delta, pathPoints.get(path[slot]).get(pathIndex[slot] + 1));
+        }
+        ordered = false;
+    }
+
+    void move(int slot, long delta, PathPoint next) {
+        double newx = relx[slot] + delta * vx[slot] * speed[slot];
+        double newy = rely[slot] + delta * vy[slot] * speed[slot];
+        if (vx[slot] != 0 && Math.abs(newx) >= 1) {
+            if (newx <= -1) {
+                newx += 1;
+            } else {
+                newx -= 1;
+            }
+            setCoord(slot, next);
+        } else if (vy[slot] != 0 && Math.abs(newy) >= 1) {
+            if (newy <= -1) {
+                newy += 1;
+            } else if (newy >= 1) {
+                newy -= 1;
+            }
+            setCoord(slot, next);
+        }
+        relx[slot] = newx;
+        rely[slot] = newy;
+    }
+
+    void setCoord(int slot, PathPoint point) {
+        coord[slot] = point;
+        pathIndex[slot] = point.getIndex();
+        vx[slot] = point.getDirections().getXcoord();
+        vy[slot] = point.getDirections().getYcoord();
+        ordered = false;
+    }
+
+    int getHp(int slot) {
+        return hp[slot];
+    }
+
+    void setHp(int slot, int value) {
+        hp[slot] = value;
+    }
+
+    double getSpeed(int slot) {
+        return speed[slot];
+    }
+
+    PathPoint getCoord(int slot) {
+        return coord[slot];
+    }
+
+    double getRelx(int slot) {
+        return relx[slot];
+    }
+
+    double getRely(int slot) {
+        return rely[slot];
+    }
+
+    void setRelative(int slot, double xcoord, double ycoord) {
+        relx[slot] = xcoord;
+        rely[slot] = ycoord;
+    }
+
+    int getVx(int slot) {
+        return vx[slot];
+    }
+
+    void setVx(int slot, int value) {
+        vx[slot] = value;
+    }
+
+    int getVy(int slot) {
+        return vy[slot];
+    }
+
+    void setVy(int slot, int value) {
+        vy[slot] = value;
+    }
+
+    double getProgress(int slot) {
+        return pathIndex[slot] + vx[slot] * relx[slot] + vy[slot] * rely[slot];
+    }
+
+    private void passSlot(int slot) {
+        swap(slot, runningEnd - 1);
+        --runningEnd;
+        ordered = false;
+    }
+
+    /**
+     * Drops the passed monsters from the entering order in one pass, monsters only leave it by passing.
+     */
+    private void compactEntered() {
+        int kept = 0;
+        for (int i = 0; i < enteredCount; ++i) {
+            final int slot = entered[i].getSlot();
+            if (slot >= pendingEnd && slot < runningEnd) {
+                entered[kept++] = entered[i];
+            }
+        }
+        Arrays.fill(entered, kept, enteredCount, null);
+        enteredCount = kept;
+    }
+
+    /**
+     * Insertion sort of the running segment by path and descending progress. Monsters rarely
+     * overtake each other, so it is linear in practice.
+     */
+    private void ensureOrdered() {
+        if (ordered) {
+            return;
+        }
+        for (int i = pendingEnd + 1; i < runningEnd; ++i) {
+            for (int j = i; j > pendingEnd && isBefore(j, j - 1); --j) {
+                swap(j, j - 1);
+            }
+        }
+        Arrays.fill(pathFrom, 0);
+        Arrays.fill(pathTo, 0);
+        for (int slot = pendingEnd; slot < runningEnd; ++slot) {
+            if (slot == pendingEnd || path[slot - 1] != path[slot]) {
+                pathFrom[path[slot]] = slot;
+            }
+            pathTo[path[slot]] = slot + 1;
+        }
+        ordered = true;
+    }
+
+    private boolean isBefore(int first, int second) {
+        if (path[first] != path[second]) {
+            return path[first] < path[second];
+        }
+        return getProgress(first) > getProgress(second);
+    }
+
+    private void swap(int first, int second) {
+        if (first == second) {
+            return;
+        }
+        final Monster handle = handles[first];
+        handles[first] = handles[second];
+        handles[second] = handle;
+        handles[first].attach(this, first);
+        handles[second].attach(this, second);
+
+        final int tmpHp = hp[first];
+        hp[first] = hp[second];
+        hp[second] = tmpHp;
+
+        final double tmpSpeed = speed[first];
+        speed[first] = speed[second];
+        speed[second] = tmpSpeed;
+
+        final PathPoint tmpCoord = coord[first];
+        coord[first] = coord[second];
+        coord[second] = tmpCoord;
+
+        final int tmpIndex = pathIndex[first];
+        pathIndex[first] = pathIndex[second];
+        pathIndex[second] = tmpIndex;
+
+        final double tmpx = relx[first];
+        relx[first] = relx[second];
+        relx[second] = tmpx;
+
+        final double tmpy = rely[first];
+        rely[first] = rely[second];
+        rely[second] = tmpy;
+
+        final int tmpVx = vx[first];
+        vx[first] = vx[second];
+        vx[second] = tmpVx;
+
+        final int tmpVy = vy[first];
+        vy[first] = vy[second];
+        vy[second] = tmpVy;
+
+        final int tmpPath = path[first];
+        path[first] = path[second];
+        path[second] = tmpPath;
+    }
+}
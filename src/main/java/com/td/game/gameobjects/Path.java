@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.td.game.domain.PathPoint;
 import com.td.game.resource.Resource;
 
+import java.util.Collections;
 import java.util.List;
 
 public class Path extends GameObject {
@@ -36,7 +37,7 @@ public class Path extends GameObject {
 
         @JsonCreator
         public PathResource(@JsonProperty("points") List<PathPoint> points) {
-            this.points = points;
+            this.points = Collections.unmodifiableList(points);
         }
     }
 }
@@ -3,6 +3,7 @@ package com.td.game.gameobjects;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.td.game.domain.Area;
+import com.td.game.domain.PathPoint;
 import com.td.game.domain.Player;
 import com.td.game.domain.Point;
 import com.td.game.domain.ShotEvent;
@@ -22,6 +23,7 @@ public class Tower extends GameObject implements Snapshotable<Tower> {
     private int range;
     private int cost;
     private Area rangeArea;
+    private int[][] pathCoverage = new int[0][];
     private Player owner;
 
     private Integer typeid;
@@ -112,6 +114,35 @@ public class Tower extends GameObject implements Snapshotable<Tower> {
         return rangeArea;
     }
 
+    /**
+     * Path indices covered by the range, per path, as sorted inclusive [from, to] pairs.
+     */
+    public int[][] getPathCoverage() {
+        return pathCoverage;
+    }
+
+    public void computePathCoverage(List<Path> paths) {
+        final Area area = getRangeArea();
+        final int[][] coverage = new int[paths.size()][];
+        for (int i = 0; i < paths.size(); ++i) {
+            final List<PathPoint> points = paths.get(i).getPathPoints();
+            final List<Integer> ranges = new ArrayList<>();
+            for (int index = 0; index < points.size(); ++index) {
+                if (!area.isUnderTopPoint(points.get(index).getTileCoord())) {
+                    continue;
+                }
+                if (!ranges.isEmpty() && ranges.get(ranges.size() - 1) == index - 1) {
+                    ranges.set(ranges.size() - 1, index);
+                } else {
+                    ranges.add(index);
+                    ranges.add(index);
+                }
+            }
+            coverage[i] = ranges.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.pathCoverage = coverage;
+    }
+
     public Player getOwner() {
         return owner;
     }
@@ -188,6 +219,14 @@ public class Tower extends GameObject implements Snapshotable<Tower> {
             this.typeid = typeid;
         }
 
+        @Override
+        public void validate() {
+            if (damage <= 0 || period <= 0 || range < 0 || cost < 0) {
+                throw new IllegalArgumentException("Tower " + typeid + " needs positive damage and period,"
+                        + " non negative range and cost");
+            }
+        }
+
         public int getCost() {
             return cost;
         }
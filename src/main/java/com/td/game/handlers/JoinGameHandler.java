@@ -1,6 +1,7 @@
 package com.td.game.handlers;
 
-import com.td.game.GameScheduler;
+import com.td.game.services.MatchmakingService;
+import com.td.game.services.StaticMapLayerService;
 import com.td.game.snapshots.JoinGameMessage;
 import com.td.websocket.MessageHandler;
 import com.td.websocket.MessageHandlersContainer;
@@ -16,13 +17,18 @@ public class JoinGameHandler extends MessageHandler<JoinGameMessage> {
     private final MessageHandlersContainer messageHandlerContainer;
 
     @NotNull
-    private final GameScheduler gameScheduler;
+    private final MatchmakingService matchmakingService;
+
+    @NotNull
+    private final StaticMapLayerService mapLayerService;
 
     public JoinGameHandler(@NotNull MessageHandlersContainer messageHandlerContainer,
-                           @NotNull GameScheduler gameScheduler) {
+                           @NotNull MatchmakingService matchmakingService,
+                           @NotNull StaticMapLayerService mapLayerService) {
         super(JoinGameMessage.class);
         this.messageHandlerContainer = messageHandlerContainer;
-        this.gameScheduler = gameScheduler;
+        this.matchmakingService = matchmakingService;
+        this.mapLayerService = mapLayerService;
     }
 
     @PostConstruct
@@ -32,6 +38,7 @@ public class JoinGameHandler extends MessageHandler<JoinGameMessage> {
 
     @Override
     public void handle(JoinGameMessage message, Long id) {
-        gameScheduler.addWaiter(id);
+        mapLayerService.setClientHash(id, message.getMapHash());
+        matchmakingService.addWaiter(id);
     }
 }
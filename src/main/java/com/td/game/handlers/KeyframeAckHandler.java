@@ -0,0 +1,41 @@
+package com.td.game.handlers;
+
+import com.td.game.GameSession;
+import com.td.game.services.GameSessionService;
+import com.td.game.snapshots.KeyframeAckMessage;
+import com.td.websocket.MessageHandler;
+import com.td.websocket.MessageHandlersContainer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+@Service
+public class KeyframeAckHandler extends MessageHandler<KeyframeAckMessage> {
+
+    @NotNull
+    private final MessageHandlersContainer messageHandlersContainer;
+
+    @NotNull
+    private final GameSessionService gameSessionService;
+
+    public KeyframeAckHandler(@NotNull MessageHandlersContainer messageHandlersContainer,
+                              @NotNull GameSessionService gameSessionService) {
+        super(KeyframeAckMessage.class);
+        this.messageHandlersContainer = messageHandlersContainer;
+        this.gameSessionService = gameSessionService;
+    }
+
+    @PostConstruct
+    private void init() {
+        messageHandlersContainer.registerHandler(KeyframeAckMessage.class, this);
+    }
+
+    @Override
+    public void handle(@NotNull KeyframeAckMessage message, Long id) {
+        final GameSession session = gameSessionService.getSessionForUser(id);
+        if (session != null) {
+            session.getSnapshotHistory().acknowledge(id, message.getFrame());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.td.game.handlers;
+
+import com.td.game.GameSession;
+import com.td.game.services.GameSessionService;
+import com.td.game.snapshots.ResyncMessage;
+import com.td.websocket.MessageHandler;
+import com.td.websocket.MessageHandlersContainer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+@Service
+public class ResyncHandler extends MessageHandler<ResyncMessage> {
+
+    @NotNull
+    private final MessageHandlersContainer messageHandlersContainer;
+
+    @NotNull
+    private final GameSessionService gameSessionService;
+
+    public ResyncHandler(@NotNull MessageHandlersContainer messageHandlersContainer,
+                         @NotNull GameSessionService gameSessionService) {
+        super(ResyncMessage.class);
+        this.messageHandlersContainer = messageHandlersContainer;
+        this.gameSessionService = gameSessionService;
+    }
+
+    @PostConstruct
+    private void init() {
+        messageHandlersContainer.registerHandler(ResyncMessage.class, this);
+    }
+
+    @Override
+    public void handle(@NotNull ResyncMessage message, Long id) {
+        final GameSession session = gameSessionService.getSessionForUser(id);
+        if (session != null) {
+            session.getSnapshotHistory().resync(id);
+        }
+    }
+}
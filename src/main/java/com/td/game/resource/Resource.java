@@ -21,4 +21,12 @@ import com.td.game.gameobjects.Tower;
         @JsonSubTypes.Type(GameParams.class),
 })
 public class Resource {
+
+    /**
+     * Checks the values that the game relies on.
+     *
+     * @throws IllegalArgumentException if the resource can not be used
+     */
+    public void validate() {
+    }
 }
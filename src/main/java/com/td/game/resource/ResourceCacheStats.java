@@ -0,0 +1,34 @@
+package com.td.game.resource;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResourceCacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    void onHit() {
+        hits.increment();
+    }
+
+    void onMiss() {
+        misses.increment();
+    }
+
+    void onReload() {
+        reloads.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getReloads() {
+        return reloads.sum();
+    }
+}
@@ -2,7 +2,7 @@ package com.td.game.resource;
 
 public class ResourceException extends RuntimeException {
 
-    ResourceException(Class failedClass, String path, Throwable cause) {
+    public ResourceException(Class failedClass, String path, Throwable cause) {
         super("Faield to load "
                 .concat(failedClass.getName())
                 .concat(" at path ")
@@ -2,60 +2,170 @@ package com.td.game.resource;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.Resources;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Parses every resource once and hands out the same instance afterwards, so resources must not be mutated
+ * by their users. The registry resources are parsed on startup, the others on first use.
+ * Resources are read from the "game.resources.dir" directory when it has the file and from the classpath otherwise.
+ * {@link #reload()} parses everything into a new {@link ResourceSnapshot} and swaps it in,
+ * objects and snapshots handed out before stay as they are.
+ */
 @Service
 public class ResourceFactory {
 
+    private static final String REGISTRY_PATH = "ResourceReg.json";
+
     private final ObjectMapper objectMapper;
-    private ResourceReg resourceReg;
+    @Nullable
+    private final Path directory;
+    private final ResourceCacheStats stats = new ResourceCacheStats();
+    private final Logger logger = LoggerFactory.getLogger(ResourceFactory.class);
+
+    private volatile ResourceSnapshot snapshot;
 
     @Autowired
-    public ResourceFactory(ObjectMapper objectMapper) {
+    public ResourceFactory(ObjectMapper objectMapper,
+                           @Value("${game.resources.dir:}") String directory) {
         this.objectMapper = objectMapper;
+        this.directory = directory.isEmpty() ? null : Paths.get(directory).toAbsolutePath();
     }
 
     @PostConstruct
-    public void init() throws IOException {
-        this.resourceReg = objectMapper.readValue(Resources.getResource("ResourceReg.json"), ResourceReg.class);
+    public void init() {
+        this.snapshot = load(Collections.emptyMap(), Collections.emptyMap());
+        logger.info("Preloaded {} registry resources{}", snapshot.size(),
+                directory == null ? "" : ", resource directory " + directory);
+    }
+
+    /**
+     * Parses the registry and every resource and list of the current snapshot again.
+     * The snapshot is replaced only if all of them parse and pass validation.
+     */
+    public synchronized void reload() {
+        final ResourceSnapshot current = snapshot;
+        this.snapshot = load(current.getResources(), current.getResourceLists());
+        stats.onReload();
+        logger.info("Reloaded {} resources and {} resource lists", snapshot.size(), snapshot.getResourceLists().size());
+    }
+
+    /**
+     * Current version of the resources, to be kept by whoever needs them to stay consistent.
+     */
+    public ResourceSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public Resource getRawResource(String path) {
-        return loadResource(path, Resource.class);
+        return snapshot.getRawResource(path);
     }
 
     public <T extends Resource> T loadResource(String path, Class<T> clazz) {
-        T resource;
-        try {
-            resource = objectMapper.readValue(Resources.getResource(path), clazz);
-        } catch (IOException e) {
-            throw new ResourceException(clazz, path, e);
-        }
-        return resource;
+        return snapshot.loadResource(path, clazz);
     }
 
     public <T extends Resource> T loadResource(Integer typeid, Class<T> clazz) {
-        return loadResource(resourceReg.getResourcePath(typeid), clazz);
+        return snapshot.loadResource(typeid, clazz);
     }
 
     public <T extends Resource> List<T> loadResourceList(String path, Class<T> clazz) {
+        return snapshot.loadResourceList(path, clazz);
+    }
+
+    public ResourceCacheStats getStats() {
+        return stats;
+    }
+
+    public int getCachedResourcesCount() {
+        return snapshot.size();
+    }
+
+    @Nullable
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Adds a resource missing from the snapshot. Runs under the reload lock, so a resource loaded by the current
+     * snapshot is either carried over by the next reload or refused once that reload is published.
+     */
+    synchronized <T extends Resource> Resource parseMissing(ResourceSnapshot target, String path, Class<T> clazz) {
+        checkCurrent(target, path, clazz);
+        return target.getResources().computeIfAbsent(path, key -> parse(key, clazz));
+    }
+
+    synchronized List<String> parseMissingList(ResourceSnapshot target, String path) {
+        checkCurrent(target, path, ResourceList.class);
+        return target.getResourceLists().computeIfAbsent(path, this::parseList);
+    }
 
+    private void checkCurrent(ResourceSnapshot target, String path, Class<?> clazz) {
+        if (target != snapshot) {
+            throw new ResourceException(clazz, path,
+                    new IllegalStateException("Resources were reloaded after the snapshot was taken"));
+        }
+    }
+
+    private ResourceSnapshot load(Map<String, Resource> known, Map<String, List<String>> knownLists) {
+        final ResourceReg reg = parse(REGISTRY_PATH, ResourceReg.class);
+        final Map<String, Resource> resources = new ConcurrentHashMap<>();
+        for (String path : reg.getResourcePaths()) {
+            resources.put(path, parse(path, Resource.class));
+        }
+        for (Map.Entry<String, Resource> entry : known.entrySet()) {
+            if (!resources.containsKey(entry.getKey())) {
+                resources.put(entry.getKey(), parse(entry.getKey(), entry.getValue().getClass()));
+            }
+        }
+        final Map<String, List<String>> resourceLists = new ConcurrentHashMap<>();
+        for (String path : knownLists.keySet()) {
+            resourceLists.put(path, parseList(path));
+        }
+        return new ResourceSnapshot(this, reg, resources, resourceLists);
+    }
+
+    <T extends Resource> T parse(String path, Class<T> clazz) {
         try {
-            ResourceList resList = objectMapper.readValue(Resources.getResource(path), ResourceList.class);
-            return resList
-                    .getResourcesUrls()
-                    .stream()
-                    .map(url -> loadResource(url, clazz))
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
+            final T resource = objectMapper.readValue(locate(path), clazz);
+            resource.validate();
+            return resource;
+        } catch (IOException | IllegalArgumentException e) {
             throw new ResourceException(clazz, path, e);
         }
     }
 
+    List<String> parseList(String path) {
+        try {
+            final ResourceList list = objectMapper.readValue(locate(path), ResourceList.class);
+            return Collections.unmodifiableList(list.getResourcesUrls());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResourceException(ResourceList.class, path, e);
+        }
+    }
+
+    private URL locate(String path) throws IOException {
+        if (directory != null) {
+            final Path file = directory.resolve(path).normalize();
+            if (file.startsWith(directory) && Files.isRegularFile(file)) {
+                return file.toUri().toURL();
+            }
+        }
+        return Resources.getResource(path);
+    }
 }
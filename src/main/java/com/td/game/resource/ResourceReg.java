@@ -3,6 +3,8 @@ package com.td.game.resource;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +25,10 @@ public class ResourceReg extends Resource {
         return reg.get(typeid);
     }
 
+    public Collection<String> getResourcePaths() {
+        return Collections.unmodifiableCollection(reg.values());
+    }
+
 
     public static class ResourceRow {
         private Integer typeid;
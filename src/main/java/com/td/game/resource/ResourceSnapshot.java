@@ -0,0 +1,87 @@
+package com.td.game.resource;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One version of the parsed resources. A game session keeps the snapshot it was created with,
+ * so a reload of the {@link ResourceFactory} is only seen by the sessions created after it.
+ * Resources missing from the snapshot are parsed on first use and added to it, as long as the snapshot is
+ * the current one: a superseded snapshot refuses them rather than mix in files changed since it was taken.
+ */
+public final class ResourceSnapshot {
+
+    @NotNull
+    private final ResourceFactory factory;
+    @NotNull
+    private final ResourceReg resourceReg;
+    @NotNull
+    private final Map<String, Resource> resources;
+    @NotNull
+    private final Map<String, List<String>> resourceLists;
+
+    ResourceSnapshot(@NotNull ResourceFactory factory,
+                     @NotNull ResourceReg resourceReg,
+                     @NotNull Map<String, Resource> resources,
+                     @NotNull Map<String, List<String>> resourceLists) {
+        this.factory = factory;
+        this.resourceReg = resourceReg;
+        this.resources = resources;
+        this.resourceLists = resourceLists;
+    }
+
+    public Resource getRawResource(String path) {
+        return loadResource(path, Resource.class);
+    }
+
+    public <T extends Resource> T loadResource(String path, Class<T> clazz) {
+        Resource resource = resources.get(path);
+        if (resource != null) {
+            factory.getStats().onHit();
+        } else {
+            factory.getStats().onMiss();
+            resource = factory.parseMissing(this, path, clazz);
+        }
+        if (!clazz.isInstance(resource)) {
+            throw new ResourceException(clazz, path,
+                    new ClassCastException(path + " is already loaded as " + resource.getClass().getName()));
+        }
+        return clazz.cast(resource);
+    }
+
+    public <T extends Resource> T loadResource(Integer typeid, Class<T> clazz) {
+        return loadResource(resourceReg.getResourcePath(typeid), clazz);
+    }
+
+    public <T extends Resource> List<T> loadResourceList(String path, Class<T> clazz) {
+        List<String> urls = resourceLists.get(path);
+        if (urls != null) {
+            factory.getStats().onHit();
+        } else {
+            factory.getStats().onMiss();
+            urls = factory.parseMissingList(this, path);
+        }
+        return urls.stream()
+                .map(url -> loadResource(url, clazz))
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return resources.size();
+    }
+
+    ResourceReg getResourceReg() {
+        return resourceReg;
+    }
+
+    Map<String, Resource> getResources() {
+        return resources;
+    }
+
+    Map<String, List<String>> getResourceLists() {
+        return resourceLists;
+    }
+}
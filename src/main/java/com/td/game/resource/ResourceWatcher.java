@@ -0,0 +1,123 @@
+package com.td.game.resource;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches the external resource directory and reloads the resources when files in it change.
+ * Changes are batched until the directory is quiet for a while, so that a copied set of files is applied at once.
+ * A version that does not parse or validate is rejected and the current resources stay in use.
+ */
+@Service
+public class ResourceWatcher {
+
+    @NotNull
+    private final ResourceFactory resourceFactory;
+
+    private final long quietPeriodMs;
+
+    private WatchService watchService;
+    private ExecutorService executor;
+
+    private final Logger logger = LoggerFactory.getLogger(ResourceWatcher.class);
+
+    public ResourceWatcher(@NotNull ResourceFactory resourceFactory,
+                           @Value("${game.resources.quiet-period-ms:500}") long quietPeriodMs) {
+        this.resourceFactory = resourceFactory;
+        this.quietPeriodMs = quietPeriodMs;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        final Path directory = resourceFactory.getDirectory();
+        if (directory == null) {
+            return;
+        }
+        watchService = directory.getFileSystem().newWatchService();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isDirectory).forEach(this::register);
+        }
+        executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("td-resource-watcher")
+                .setDaemon(true)
+                .build());
+        executor.submit(this::watch);
+        logger.info("Watching {} for resource changes", directory);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    handleEvents(key);
+                    key = watchService.poll(quietPeriodMs, TimeUnit.MILLISECONDS);
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Resource watcher closed");
+        }
+    }
+
+    private void handleEvents(WatchKey key) {
+        final Path watched = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                final Path created = watched.resolve((Path) event.context());
+                if (Files.isDirectory(created)) {
+                    register(created);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void reload() {
+        try {
+            resourceFactory.reload();
+        } catch (ResourceException e) {
+            logger.error("Rejected resource change, keeping the current resources", e);
+        }
+    }
+
+    private void register(Path directory) {
+        try {
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            logger.error("Unable to watch {}", directory, e);
+        }
+    }
+}
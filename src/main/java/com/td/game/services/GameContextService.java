@@ -10,7 +10,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class GameContextService {
     private final Map<Long, GameContext> userGameContext;
 
-    GameContextService() {
+    public GameContextService() {
         this.userGameContext = new ConcurrentHashMap<>();
     }
 
@@ -18,6 +18,10 @@ public class GameContextService {
         userGameContext.putIfAbsent(id, context);
     }
 
+    public void remapUser(Long id, GameContext context) {
+        userGameContext.replace(id, context);
+    }
+
     public void unregisterUserMapping(Long id) {
         userGameContext.remove(id);
     }
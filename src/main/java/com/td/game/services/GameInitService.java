@@ -1,11 +1,13 @@
 package com.td.game.services;
 
-import com.td.domain.User;
+import com.td.daos.UserView;
 import com.td.game.GameSession;
 import com.td.game.domain.*;
 import com.td.game.gameobjects.Path;
 import com.td.game.resource.ResourceFactory;
+import com.td.game.resource.ResourceSnapshot;
 import com.td.game.snapshots.GameInitMessage;
+import com.td.game.snapshots.StaticMapLayer;
 import com.td.websocket.TransportService;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,10 @@ import java.util.stream.Collectors;
 @Service
 public class GameInitService {
 
+    private static final String MAP_RESOURCE = "GameMap.json";
+    private static final String GAME_PARAMS_LIST = "gameParams/GameParamsList.json";
+    private static final String PLAYER_CLASS_LIST = "PlayerClassList.json";
+
     @NotNull
     private final TransportService transport;
     @NotNull
@@ -29,32 +35,48 @@ public class GameInitService {
     @NotNull
     private final PathGenerateService pathGenerator;
 
-    private TextureAtlas textureAtlas;
+    @NotNull
+    private final StaticMapLayerService mapLayerService;
 
     @NotNull
     private final MonsterWaveGenerator waveService;
-    private List<GameParams> gameSessionsParams;
 
 
     public GameInitService(@NotNull TransportService transportService,
                            @NotNull ResourceFactory resourceFactory,
                            @NotNull PathGenerateService pathGenerator,
-                           @NotNull MonsterWaveGenerator waveService) {
+                           @NotNull MonsterWaveGenerator waveService,
+                           @NotNull StaticMapLayerService mapLayerService) {
         this.transport = transportService;
         this.resourceFactory = resourceFactory;
         this.pathGenerator = pathGenerator;
         this.waveService = waveService;
+        this.mapLayerService = mapLayerService;
     }
 
+    /**
+     * Loads everything a game uses, a session created before a resource reload can't load new resources later.
+     */
     @PostConstruct
     public void init() {
-        this.textureAtlas = resourceFactory.loadResource("TextureAtlas.json", TextureAtlas.class);
-        this.gameSessionsParams = resourceFactory.loadResourceList("gameParams/GameParamsList.json", GameParams.class);
-
-
+        ResourceSnapshot resources = resourceFactory.getSnapshot();
+        resources.loadResourceList(GAME_PARAMS_LIST, GameParams.class);
+        resources.loadResourceList(PLAYER_CLASS_LIST, PlayerClass.class);
+        pathGenerator.preload(resources);
+        waveService.preload(resources);
+        mapLayerService.getLayer(resources, MAP_RESOURCE);
     }
 
+    /**
+     * Sends nothing unless every player is connected, so that nobody gets the init message of a game
+     * that does not start.
+     */
     public void initGameInSession(@NotNull GameSession session) {
+        for (Player player : session.getPlayers()) {
+            if (!transport.isConnected(player.getId())) {
+                throw new SnapshotSendingException("player " + player.getId() + " is not connected");
+            }
+        }
         List<Player.PlayerSnapshot> playerSnapshots = session.getPlayers()
                 .stream()
                 .map(Player::getSnapshot)
@@ -75,35 +97,36 @@ public class GameInitService {
                                               Player player,
                                               List<Player.PlayerSnapshot> playerSnapshots) {
         Wave.WaveSnapshot current = session.getCurrentWave().getSnapshot();
-        GameMap.GameMapSnapshot map = session.getGameMap().getSnapshot();
+        StaticMapLayer mapLayer = mapLayerService.getLayer(session.getResources(), MAP_RESOURCE);
         PlayerClass playerClass = session.getPlayersClasses().get(player.getId());
         List<Integer> availableTowers = playerClass.getAvailableTowers();
         return new GameInitMessage(
                 player.getId(),
-                map,
+                mapLayer,
+                mapLayerService.isCachedByClient(player.getId(), mapLayer),
                 playerSnapshots,
                 availableTowers,
                 current,
-                textureAtlas,
                 session.getHp());
 
     }
 
-    @NotNull GameSession createGameSession(Set<User> users) {
-        GameMap map = new GameMap(resourceFactory.loadResource("GameMap.json", GameMap.GameMapResource.class));
+    @NotNull GameSession createGameSession(Set<UserView> users) {
+        ResourceSnapshot resources = resourceFactory.getSnapshot();
+        GameMap map = new GameMap(resources.loadResource(MAP_RESOURCE, GameMap.GameMapResource.class));
 
-        Path path = pathGenerator.generatePath();
+        Path path = pathGenerator.generatePath(resources);
         List<Path> paths = new ArrayList<>();
         paths.add(path);
         map.setPathTiles(path.getPathPoints());
 
-        Wave wave = waveService.generateWave(0, paths);
+        Wave wave = waveService.generateWave(0, paths, resources);
         List<Player> players = users.stream()
-                .map(user -> new Player(user.getId(), user.getProfile().getGameClass(), user.getNickname()))
+                .map(user -> new Player(user.getId(), user.getGameClass(), user.getNickname()))
                 .collect(Collectors.toList());
 
         Map<String, PlayerClass> availableClasses = users.stream()
-                .map(user -> resourceFactory.loadResource(user.getProfile().getGameClass() + ".json", PlayerClass.class))
+                .map(user -> resources.loadResource(user.getGameClass() + ".json", PlayerClass.class))
                 .collect(Collectors
                         .toMap(PlayerClass::toString,
                                 value -> value,
@@ -111,12 +134,12 @@ public class GameInitService {
 
         Map<Long, PlayerClass> playersClasses = users.stream()
                 .collect(Collectors
-                        .toMap(User::getId,
-                                user -> availableClasses.get(user.getProfile().getGameClass())
+                        .toMap(UserView::getId,
+                                user -> availableClasses.get(user.getGameClass())
                         ));
 
-        GameParams sessionParams = gameSessionsParams.get(users.size() - 1);
-        return new GameSession(players, playersClasses, map, wave, paths, sessionParams);
+        GameParams sessionParams = resources.loadResourceList(GAME_PARAMS_LIST, GameParams.class).get(users.size() - 1);
+        return new GameSession(players, playersClasses, map, wave, paths, sessionParams, resources);
 
     }
 }
@@ -1,8 +1,7 @@
 package com.td.game.services;
 
-import com.td.daos.ScoresDao;
-import com.td.daos.UserDao;
-import com.td.domain.User;
+import com.td.daos.ScoreSink;
+import com.td.daos.UserView;
 import com.td.game.GameContext;
 import com.td.game.GameSession;
 import com.td.game.domain.Player;
@@ -30,10 +29,7 @@ public class GameSessionService {
     private final TransportService transport;
 
     @NotNull
-    private final UserDao userDao;
-
-    @NotNull
-    private final ScoresDao scoresDao;
+    private final ScoreSink scoreSink;
 
     @NotNull
     private final GameInitService gameInitService;
@@ -42,20 +38,17 @@ public class GameSessionService {
     private final GameContextService gameContextService;
 
     public GameSessionService(@NotNull TransportService transport,
-                              @NotNull UserDao userDao,
-                              @NotNull ScoresDao scoresDao,
+                              @NotNull ScoreSink scoreSink,
                               @NotNull GameInitService gameInitService,
                               @NotNull GameContextService gameContextService) {
         this.transport = transport;
-
-        this.userDao = userDao;
-        this.scoresDao = scoresDao;
+        this.scoreSink = scoreSink;
         this.gameInitService = gameInitService;
         this.gameContextService = gameContextService;
     }
 
 
-    public boolean startGame(Set<User> users, GameContext context) {
+    public boolean startGame(Set<UserView> users, GameContext context) {
         GameSession session = gameInitService.createGameSession(users);
         synchronized (usersSessions) {
             if (users.stream().anyMatch(user -> isPlaying(user.getId()))) {
@@ -66,11 +59,9 @@ public class GameSessionService {
                 gameContextService.registerUserMapping(user.getId(), context);
             });
         }
-        context.addSession(session);
-
         try {
             gameInitService.initGameInSession(session);
-        } catch (SnapshotSendingException exception) {
+        } catch (RuntimeException exception) {
             logger.error("Unable to send initial snapshot: {}", exception);
             synchronized (usersSessions) {
                 users.forEach(user -> {
@@ -80,6 +71,8 @@ public class GameSessionService {
             }
             return false;
         }
+        // only a session whose players got the init message is ticked, a failed one never enters the context
+        context.addSession(session);
         return true;
     }
 
@@ -107,9 +100,8 @@ public class GameSessionService {
 
     public void finishGame(@NotNull GameSession session, GameContext context) {
         for (Player player : session.getPlayers()) {
-            User user = userDao.getUserById(player.getId());
-            scoresDao.addScores(user, player.getScores());
-            usersSessions.remove(user.getId());
+            scoreSink.submit(player.getId(), player.getScores());
+            usersSessions.remove(player.getId());
             gameContextService.unregisterUserMapping(player.getId());
             try {
                 transport.sendMessageToUser(player.getId(), new GameFinishMessage(player.getScores()));
@@ -125,4 +117,8 @@ public class GameSessionService {
         return usersSessions.get(playerId);
     }
 
+    public GameContext getContextForUser(Long playerId) {
+        return gameContextService.getContext(playerId);
+    }
+
 }
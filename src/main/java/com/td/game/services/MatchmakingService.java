@@ -0,0 +1,256 @@
+package com.td.game.services;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.td.daos.ScoresDao;
+import com.td.daos.UserCache;
+import com.td.daos.UserView;
+import com.td.game.GameContext;
+import com.td.websocket.TransportService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forms lobbies on its own thread. Joining players are put to a lock-free queue, every period the queue is
+ * drained, the new players are loaded with one query for users and one for their scores, and lobbies are
+ * formed and handed to the least loaded context, which starts them at its next tick.
+ * Players are matched by score bracket, class and round trip time band; the longer a player waits
+ * the looser the match, see {@link Candidate#getKey}.
+ */
+@Service
+public class MatchmakingService {
+
+    private static final int STRICT = 0;
+    private static final int SAME_BRACKET = 1;
+    private static final int ANYONE = 2;
+    private static final int LEVELS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    private final Queue<Long> waiters = new ConcurrentLinkedQueue<>();
+    private final List<GameContext> contexts = new CopyOnWriteArrayList<>();
+
+    /**
+     * Loaded waiters in order of joining, accessed by the matchmaker thread only.
+     */
+    private final Map<Long, Candidate> pending = new LinkedHashMap<>();
+
+    @NotNull
+    private final UserCache userCache;
+
+    @NotNull
+    private final ScoresDao scoresDao;
+
+    @NotNull
+    private final TransportService transportService;
+
+    @NotNull
+    private final GameSessionService gameSessionService;
+
+    @NotNull
+    private final MatchmakingSettings settings;
+
+    private final ScheduledExecutorService executor;
+
+    public MatchmakingService(@NotNull UserCache userCache,
+                              @NotNull ScoresDao scoresDao,
+                              @NotNull TransportService transportService,
+                              @NotNull GameSessionService gameSessionService,
+                              @NotNull MatchmakingSettings settings) {
+        this.userCache = userCache;
+        this.scoresDao = scoresDao;
+        this.transportService = transportService;
+        this.gameSessionService = gameSessionService;
+        this.settings = settings;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("td-matchmaker")
+                .setDaemon(true)
+                .build());
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(this::formLobbies, settings.getPeriodMs(), settings.getPeriodMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void registerContext(@NotNull GameContext context) {
+        contexts.add(context);
+    }
+
+    public void addWaiter(@NotNull Long id) {
+        waiters.add(id);
+    }
+
+    /**
+     * Puts the players of a lobby that could not be started back to the queue.
+     */
+    public void returnLobby(@NotNull Set<UserView> lobby) {
+        lobby.forEach(user -> waiters.add(user.getId()));
+    }
+
+    void formLobbies() {
+        try {
+            final long now = System.nanoTime();
+            final Set<Long> joined = new LinkedHashSet<>();
+            Long id;
+            while ((id = waiters.poll()) != null) {
+                if (!pending.containsKey(id)) {
+                    joined.add(id);
+                }
+            }
+            pending.keySet().removeIf(waiter -> !isAvailable(waiter));
+            joined.removeIf(waiter -> !isAvailable(waiter));
+            loadCandidates(joined, now);
+            if (!contexts.isEmpty()) {
+                matchCandidates(now);
+            }
+        } catch (RuntimeException e) {
+            log.error("Exception on lobby forming: ", e);
+        }
+    }
+
+    private boolean isAvailable(@NotNull Long id) {
+        return transportService.isConnected(id) && !gameSessionService.isPlaying(id);
+    }
+
+    private void loadCandidates(@NotNull Set<Long> ids, long now) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        final Map<Long, UserView> users = userCache.getUsers(ids);
+        final Map<Long, Double> scores = scoresDao.getAverageScores(ids);
+        for (Long id : ids) {
+            final UserView user = users.get(id);
+            if (user != null) {
+                pending.put(id, new Candidate(user, now, scores.getOrDefault(id, 0.0),
+                        transportService.getRttMillis(id), settings));
+            }
+        }
+    }
+
+    /**
+     * Goes over the players from the longest waiting one: each of them opens a lobby with the longest
+     * waiting players having the same key at its level, if there are enough of them.
+     */
+    private void matchCandidates(long now) {
+        final List<Map<String, Set<Candidate>>> buckets = new ArrayList<>(LEVELS);
+        for (int level = 0; level < LEVELS; ++level) {
+            buckets.add(new HashMap<>());
+        }
+        for (Candidate candidate : pending.values()) {
+            for (int level = 0; level < LEVELS; ++level) {
+                buckets.get(level).computeIfAbsent(candidate.getKey(level), key -> new LinkedHashSet<>()).add(candidate);
+            }
+        }
+
+        final int lobbySize = settings.getLobbySize();
+        for (Candidate anchor : new ArrayList<>(pending.values())) {
+            if (!pending.containsKey(anchor.getId())) {
+                continue;
+            }
+            final int level = anchor.getLevel(now, settings.getMaxWaitNanos());
+            final Set<Candidate> bucket = buckets.get(level).get(anchor.getKey(level));
+            if (bucket.size() < lobbySize) {
+                continue;
+            }
+
+            final List<Candidate> taken = new ArrayList<>(lobbySize);
+            final Iterator<Candidate> iterator = bucket.iterator();
+            while (taken.size() < lobbySize) {
+                taken.add(iterator.next());
+            }
+            final Set<UserView> lobby = new HashSet<>();
+            for (Candidate candidate : taken) {
+                pending.remove(candidate.getId());
+                for (int i = 0; i < LEVELS; ++i) {
+                    buckets.get(i).get(candidate.getKey(i)).remove(candidate);
+                }
+                lobby.add(candidate.getUser());
+            }
+
+            final GameContext context = getLeastLoaded();
+            if (context != null) {
+                context.offerLobby(lobby);
+            }
+        }
+    }
+
+    @Nullable
+    private GameContext getLeastLoaded() {
+        GameContext best = null;
+        for (GameContext context : contexts) {
+            if (best == null || context.getPendingSessionsSize() < best.getPendingSessionsSize()
+                    || context.getPendingSessionsSize() == best.getPendingSessionsSize() && context.getLoad() < best.getLoad()) {
+                best = context;
+            }
+        }
+        return best;
+    }
+
+    private static final class Candidate {
+        @NotNull
+        private final UserView user;
+        private final long joinedAt;
+        private final String[] keys = new String[LEVELS];
+
+        Candidate(@NotNull UserView user, long joinedAt, double averageScore, long rttMillis, @NotNull MatchmakingSettings settings) {
+            this.user = user;
+            this.joinedAt = joinedAt;
+            final long bracket = (long) Math.floor(averageScore / settings.getScoreBracket());
+            final long rttBand = rttMillis < 0 ? 0 : rttMillis / settings.getRttBandMs();
+            keys[STRICT] = bracket + "/" + user.getGameClass() + "/" + rttBand;
+            keys[SAME_BRACKET] = Long.toString(bracket);
+            keys[ANYONE] = "";
+        }
+
+        Long getId() {
+            return user.getId();
+        }
+
+        @NotNull
+        UserView getUser() {
+            return user;
+        }
+
+        /**
+         * Players with the same key at a level may play together: the strict key is the score bracket, class
+         * and round trip time band, then the score bracket only and then anyone.
+         */
+        String getKey(int level) {
+            return keys[level];
+        }
+
+        int getLevel(long now, long maxWaitNanos) {
+            final long waited = now - joinedAt;
+            if (waited < maxWaitNanos) {
+                return STRICT;
+            }
+            return waited < 2 * maxWaitNanos ? SAME_BRACKET : ANYONE;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.td.game.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class MatchmakingSettings {
+
+    /**
+     * Lobby sizes map to the GameParams_1..4 tiers of gameParams/GameParamsList.json.
+     */
+    public static final int MAX_LOBBY_SIZE = 4;
+
+    private final long periodMs;
+    private final int lobbySize;
+    private final long maxWaitNanos;
+    private final double scoreBracket;
+    private final long rttBandMs;
+
+    public MatchmakingSettings(@Value("${game.matchmaking.period-ms:300}") long periodMs,
+                               @Value("${game.matchmaking.lobby-size:2}") int lobbySize,
+                               @Value("${game.matchmaking.max-wait-ms:10000}") long maxWaitMs,
+                               @Value("${game.matchmaking.score-bracket:500}") double scoreBracket,
+                               @Value("${game.matchmaking.rtt-band-ms:80}") long rttBandMs) {
+        if (lobbySize < 1 || lobbySize > MAX_LOBBY_SIZE) {
+            throw new IllegalArgumentException("Lobby size must be in [1, " + MAX_LOBBY_SIZE + "], got " + lobbySize);
+        }
+        requirePositive("period-ms", periodMs);
+        requirePositive("max-wait-ms", maxWaitMs);
+        requirePositive("score-bracket", scoreBracket);
+        requirePositive("rtt-band-ms", rttBandMs);
+        this.periodMs = periodMs;
+        this.lobbySize = lobbySize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.scoreBracket = scoreBracket;
+        this.rttBandMs = rttBandMs;
+    }
+
+    private static void requirePositive(String name, double value) {
+        // also rejects NaN, the brackets and bands are divided by
+        if (!(value > 0)) {
+            throw new IllegalArgumentException("game.matchmaking." + name + " must be positive, got " + value);
+        }
+    }
+
+    public long getPeriodMs() {
+        return periodMs;
+    }
+
+    public int getLobbySize() {
+        return lobbySize;
+    }
+
+    /**
+     * Wait after which a player may be matched across classes and latencies, and after twice of it with anyone.
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    public double getScoreBracket() {
+        return scoreBracket;
+    }
+
+    public long getRttBandMs() {
+        return rttBandMs;
+    }
+}
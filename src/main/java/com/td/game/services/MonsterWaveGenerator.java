@@ -3,11 +3,10 @@ package com.td.game.services;
 import com.td.game.domain.Wave;
 import com.td.game.gameobjects.Monster;
 import com.td.game.gameobjects.Path;
-import com.td.game.resource.ResourceFactory;
+import com.td.game.resource.ResourceSnapshot;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
-import javax.annotation.PostConstruct;
 import java.util.*;
 
 @Service
@@ -16,27 +15,20 @@ public class MonsterWaveGenerator {
     public static final long WAVE_START_DELAY = 10000;
     public static final long NEW_MONSTER_DELAY = 500;
 
-    @NotNull
-    private final ResourceFactory resourceFactory;
-
-    private List<Monster.MonsterResource> availableMonsters;
+    private static final String MONSTERS_LIST = "monsters/MonstersList.json";
 
     private Random randomGenerator = new Random(System.currentTimeMillis());
 
-    public MonsterWaveGenerator(@NotNull ResourceFactory resourceFactory) {
-        this.resourceFactory = resourceFactory;
-    }
-
-    @PostConstruct
-    public void init() {
-        availableMonsters = resourceFactory.loadResourceList("monsters/MonstersList.json", Monster.MonsterResource.class);
+    public void preload(@NotNull ResourceSnapshot resources) {
+        resources.loadResourceList(MONSTERS_LIST, Monster.MonsterResource.class);
     }
 
-    public Wave generateWave(int waveNumber, List<Path> paths) {
+    public Wave generateWave(int waveNumber, List<Path> paths, @NotNull ResourceSnapshot resources) {
+        List<Monster.MonsterResource> availableMonsters = resources.loadResourceList(MONSTERS_LIST, Monster.MonsterResource.class);
         List<Monster> monsters = new ArrayList<>();
         Map<Path, List<Monster>> pathBindings = new HashMap<>();
         for (int i = 0; i <= waveNumber; ++i) {
-            Monster monster = createRandomMonster();
+            Monster monster = createRandomMonster(availableMonsters);
             Path path = paths.get(randomGenerator.nextInt(paths.size()));
             monster.setCoord(path.getInitalPoint());
             monsters.add(monster);
@@ -52,11 +44,11 @@ public class MonsterWaveGenerator {
             });
 
         }
-        return new Wave(monsters, pathBindings, WAVE_START_DELAY, NEW_MONSTER_DELAY);
+        return new Wave(monsters, paths, pathBindings, WAVE_START_DELAY, NEW_MONSTER_DELAY);
     }
 
     @NotNull
-    private Monster createRandomMonster() {
+    private Monster createRandomMonster(List<Monster.MonsterResource> availableMonsters) {
         Integer randomIdx = randomGenerator.nextInt(availableMonsters.size());
         return new Monster(availableMonsters.get(randomIdx));
     }
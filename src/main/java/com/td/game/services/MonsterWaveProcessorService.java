@@ -2,17 +2,12 @@ package com.td.game.services;
 
 import com.td.game.GameSession;
 import com.td.game.domain.Wave;
-import com.td.game.gameobjects.Monster;
-import com.td.game.gameobjects.Path;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.BiConsumer;
 
 @Service
 public class MonsterWaveProcessorService {
@@ -20,7 +15,7 @@ public class MonsterWaveProcessorService {
     @NotNull
     private final MonsterWaveGenerator waveGenerator;
 
-    private final Map<Wave.WaveStatus, BiConsumer<Wave, Long>> waveStatusHandlers = new HashMap<>();
+    private final Map<Wave.WaveStatus, WaveStatusHandler> waveStatusHandlers = new EnumMap<>(Wave.WaveStatus.class);
 
     public MonsterWaveProcessorService(@NotNull MonsterWaveGenerator waveGenerator) {
         this.waveGenerator = waveGenerator;
@@ -43,22 +38,16 @@ public class MonsterWaveProcessorService {
         Wave wave = session.getCurrentWave();
         if (wave.getStatus() == Wave.WaveStatus.FINISHED) {
             session.setWaveNumber(session.getWaveNumber() + 1);
-            session.setCurrentWave(waveGenerator.generateWave(session.getWaveNumber(), session.getPaths()));
+            session.setCurrentWave(waveGenerator.generateWave(session.getWaveNumber(), session.getPaths(), session.getResources()));
             return;
         }
         wave.tryToFinishWave();
-        waveStatusHandlers.get(wave.getStatus()).accept(wave, delta);
+        waveStatusHandlers.get(wave.getStatus()).handle(wave, delta);
 
     }
 
-    private void moveMonsters(@NotNull Wave wave, Long delta) {
-        Map<Path, List<Monster>> pathBindings = wave.getPathBindings();
-        Set<Monster> running = wave.getRunning();
-        pathBindings.forEach((path, monsters) ->
-                monsters.stream().filter(running::contains).forEach(monster -> {
-                    Integer next = monster.getCoord().getIndex() + 1;
-                    monster.move(delta, path.getPathPoints().get(next));
-                }));
+    private void moveMonsters(@NotNull Wave wave, long delta) {
+        wave.moveRunning(delta);
     }
 
     public void processCleanup(@NotNull GameSession session) {
@@ -72,15 +61,11 @@ public class MonsterWaveProcessorService {
                 && wave.getStatus() != Wave.WaveStatus.STARTED) {
             return;
         }
-        Map<Path, List<Monster>> pathBindings = wave.getPathBindings();
-        Set<Monster> running = wave.getRunning();
-        pathBindings.forEach((path, monsters) ->
-                monsters.stream().filter(monster -> path.getLastPoint().equals(monster.getCoord()))
-                        .filter(running::contains)
-                        .forEach(monster -> {
-                            session.setHp(session.getHp() - monster.getWeight());
-                            wave.passMonster(monster);
-                        }));
+        session.setHp(session.getHp() - wave.passArrivedMonsters());
     }
 
+    @FunctionalInterface
+    private interface WaveStatusHandler {
+        void handle(Wave wave, long delta);
+    }
 }
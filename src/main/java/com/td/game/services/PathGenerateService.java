@@ -1,23 +1,22 @@
 package com.td.game.services;
 
 import com.td.game.gameobjects.Path;
-import com.td.game.resource.ResourceFactory;
+import com.td.game.resource.ResourceSnapshot;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PathGenerateService {
 
-    @NotNull
-    private final ResourceFactory resourceFactory;
+    private static final String PATH_RESOURCE = "Path.json";
 
-    public PathGenerateService(@NotNull ResourceFactory resourceFactory) {
-        this.resourceFactory = resourceFactory;
-    }
-
-    public Path generatePath() {
-        Path.PathResource res = resourceFactory.loadResource("Path.json", Path.PathResource.class);
+    public Path generatePath(@NotNull ResourceSnapshot resources) {
+        Path.PathResource res = resources.loadResource(PATH_RESOURCE, Path.PathResource.class);
         return new Path(res);
 
     }
+
+    public void preload(@NotNull ResourceSnapshot resources) {
+        resources.loadResource(PATH_RESOURCE, Path.PathResource.class);
+    }
 }
@@ -3,33 +3,81 @@ package com.td.game.services;
 import com.td.game.GameSession;
 import com.td.game.domain.Player;
 import com.td.game.domain.ShotEvent;
+import com.td.game.domain.Wave;
+import com.td.game.gameobjects.Monster;
 import com.td.game.gameobjects.Tower;
+import com.td.game.snapshots.ServerDeltaSnap;
 import com.td.game.snapshots.ServerSnap;
+import com.td.game.snapshots.SnapshotHistory;
+import com.td.websocket.SharedMessage;
 import com.td.websocket.TransportService;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Sends a full "state" snapshot to the players that have no acknowledged keyframe
+ * and a "delta" against the acknowledged keyframe to the others.
+ */
 @Service
 public class ServerSnaphotService {
 
     @NotNull
     private TransportService transportService;
 
-    public ServerSnaphotService(@NotNull TransportService transportService) {
+    private final long keyframeInterval;
+
+    public ServerSnaphotService(@NotNull TransportService transportService,
+                                @Value("${game.snapshot.keyframe-interval:20}") long keyframeInterval) {
         this.transportService = transportService;
+        this.keyframeInterval = keyframeInterval;
     }
 
     public void sendServerSnapshot(@NotNull GameSession session) {
+        final SnapshotHistory history = session.getSnapshotHistory();
+        final long frame = history.nextFrame();
 
-        ServerSnap snap = ServerSnap.builder()
-                .setPlayersSnap(session
-                        .getPlayers()
-                        .stream()
-                        .map(Player::getSnapshot)
-                        .collect(Collectors.toList()))
+        SharedMessage fullState = null;
+        if (history.isKeyframeDue(frame, session.getWaveNumber(), keyframeInterval)) {
+            final ServerSnap snap = buildFullSnapshot(session, frame);
+            history.addKeyframe(new SnapshotHistory.Keyframe(frame, snap));
+            fullState = new SharedMessage(snap);
+        }
+
+        final Map<Long, SharedMessage> deltas = new HashMap<>();
+        for (Player player : session.getPlayers()) {
+            final SharedMessage message;
+            final SnapshotHistory.Keyframe base = fullState == null ? history.getAcknowledgedKeyframe(player.getId()) : null;
+            if (base != null) {
+                message = deltas.computeIfAbsent(base.getFrame(),
+                        baseFrame -> new SharedMessage(buildDeltaSnapshot(session, base, frame)));
+            } else {
+                if (fullState == null) {
+                    fullState = new SharedMessage(buildFullSnapshot(session, null));
+                }
+                message = fullState;
+            }
+            try {
+                transportService.sendStateToUser(player.getId(), message);
+            } catch (IOException e) {
+                throw new SnapshotSendingException("Unable to send server snapshot to " + player.getId(), e);
+            }
+        }
+    }
+
+    private ServerSnap buildFullSnapshot(@NotNull GameSession session, @Nullable Long keyframe) {
+        return ServerSnap.builder()
+                .setPlayersSnap(getPlayersSnap(session))
                 .setTowersSnap(session
                         .getTowers()
                         .stream()
@@ -38,24 +86,70 @@ public class ServerSnaphotService {
                 .setCurrentWaveSnap(session
                         .getCurrentWave()
                         .getSnapshot())
-                .setShotEvents(session
-                        .getShotEvents()
-                        .stream()
-                        .map(ShotEvent::getSnapshot)
-                        .collect(Collectors.toList()))
+                .setShotEvents(getShotEventsSnap(session))
                 .setHp(session.getHp())
                 .setWaveNumber(session.getWaveNumber())
+                .setFrame(keyframe)
                 .build();
-        for (Player player : session.getPlayers()) {
-            try {
-                snap.setPlayerId(player.getId());
-                transportService.sendMessageToUser(player.getId(), snap);
+    }
 
-            } catch (IOException e) {
-                throw new SnapshotSendingException("Unable to send server snapshot to " + player.getId(), e);
+    private ServerDeltaSnap buildDeltaSnapshot(@NotNull GameSession session, @NotNull SnapshotHistory.Keyframe base, long frame) {
+        final Wave wave = session.getCurrentWave();
+        final Map<Long, Monster.MonsterSnapshot> baseMonsters = base.getMonsters();
+
+        final List<Monster.MonsterSnapshot> changed = new ArrayList<>();
+        final Set<Long> alive = new HashSet<>();
+        for (Monster monster : wave.getRunning()) {
+            alive.add(monster.getId());
+            final Monster.MonsterSnapshot snapshot = monster.getSnapshot();
+            final Monster.MonsterSnapshot baseSnapshot = baseMonsters.get(monster.getId());
+            if (baseSnapshot == null || !baseSnapshot.hasSameState(snapshot)) {
+                changed.add(snapshot);
             }
         }
+        for (Monster monster : wave.getPending()) {
+            alive.add(monster.getId());
+        }
+        final List<Long> removed = new ArrayList<>();
+        for (Long id : baseMonsters.keySet()) {
+            if (!alive.contains(id)) {
+                removed.add(id);
+            }
+        }
+
+        final List<Tower.TowerSnapshot> addedTowers = new ArrayList<>();
+        for (Tower tower : session.getTowers()) {
+            if (!base.hasTower(tower.getId())) {
+                addedTowers.add(tower.getSnapshot());
+            }
+        }
+
+        final long msToStart = wave.getStatus() == Wave.WaveStatus.PENDING ? wave.getLocalTimeBuffer() : 0;
+        return ServerDeltaSnap.builder()
+                .setFrames(frame, base.getFrame())
+                .setPlayersSnap(getPlayersSnap(session))
+                .setMonsters(changed, removed)
+                .setTowersSnap(addedTowers)
+                .setShotEvents(getShotEventsSnap(session))
+                .setWaveStatus(wave.getStatus().toString().toLowerCase(), msToStart)
+                .setHp(session.getHp())
+                .setWaveNumber(session.getWaveNumber())
+                .build();
     }
 
+    private List<Player.PlayerSnapshot> getPlayersSnap(@NotNull GameSession session) {
+        return session
+                .getPlayers()
+                .stream()
+                .map(Player::getSnapshot)
+                .collect(Collectors.toList());
+    }
 
+    private List<ShotEvent.ShotEventSnapshot> getShotEventsSnap(@NotNull GameSession session) {
+        return session
+                .getShotEvents()
+                .stream()
+                .map(ShotEvent::getSnapshot)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,122 @@
+package com.td.game.services;
+
+import com.td.game.GameContext;
+import com.td.game.GameSession;
+import com.td.game.domain.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work stealing between game contexts: an underloaded context asks the busiest one for a session,
+ * and the busiest one hands it over at its own tick boundary.
+ */
+@Service
+public class SessionBalancerService {
+    private final Logger log = LoggerFactory.getLogger(SessionBalancerService.class);
+
+    private final List<GameContext> contexts = new CopyOnWriteArrayList<>();
+
+    @NotNull
+    private final GameContextService gameContextService;
+
+    private final boolean enabled;
+    private final long periodTicks;
+    private final double imbalanceRatio;
+    private final long minImbalance;
+    private final long migrationCooldown;
+
+    public SessionBalancerService(@NotNull GameContextService gameContextService,
+                                  @Value("${game.balance.enabled:true}") boolean enabled,
+                                  @Value("${game.balance.period-ticks:20}") long periodTicks,
+                                  @Value("${game.balance.imbalance-ratio:1.5}") double imbalanceRatio,
+                                  @Value("${game.balance.min-imbalance-us:500}") long minImbalanceMicros,
+                                  @Value("${game.balance.cooldown-ms:5000}") long migrationCooldownMs) {
+        this.gameContextService = gameContextService;
+        this.enabled = enabled;
+        this.periodTicks = periodTicks;
+        this.imbalanceRatio = imbalanceRatio;
+        this.minImbalance = TimeUnit.MICROSECONDS.toNanos(minImbalanceMicros);
+        this.migrationCooldown = TimeUnit.MILLISECONDS.toNanos(migrationCooldownMs);
+    }
+
+    public void registerContext(@NotNull GameContext context) {
+        contexts.add(context);
+    }
+
+    public void balance(@NotNull GameContext context) {
+        if (!enabled) {
+            return;
+        }
+        GameContext thief = context.pollStealRequest();
+        if (thief != null) {
+            donateSession(context, thief);
+            return;
+        }
+        if (context.getTickStats().getTicks() % periodTicks == 0) {
+            tryToSteal(context);
+        }
+    }
+
+    private void tryToSteal(@NotNull GameContext thief) {
+        GameContext victim = null;
+        for (GameContext candidate : contexts) {
+            if (candidate != thief && (victim == null || candidate.getLoad() > victim.getLoad())) {
+                victim = candidate;
+            }
+        }
+        if (victim != null && isOverloaded(victim, thief) && victim.requestSteal(thief)) {
+            log.trace("Context with load {} asked context with load {} for a session", thief.getLoad(), victim.getLoad());
+        }
+    }
+
+    private boolean isOverloaded(@NotNull GameContext victim, @NotNull GameContext thief) {
+        long gap = victim.getLoad() - thief.getLoad();
+        return gap > minImbalance && victim.getLoad() > thief.getLoad() * imbalanceRatio;
+    }
+
+    private void donateSession(@NotNull GameContext victim, @NotNull GameContext thief) {
+        if (!isOverloaded(victim, thief)) {
+            return;
+        }
+        GameSession session = chooseSession(victim, (victim.getLoad() - thief.getLoad()) / 2);
+        if (session == null) {
+            return;
+        }
+        session.setLastMigrationTime(System.nanoTime());
+        victim.removeSession(session);
+        victim.setLoad(victim.getLoad() - session.getTickCost());
+        thief.setLoad(thief.getLoad() + session.getTickCost());
+        for (Player player : session.getPlayers()) {
+            gameContextService.remapUser(player.getId(), thief);
+        }
+        thief.offerSession(session);
+        log.debug("Session {} with tick cost {} ns migrated to another context", session.getId(), session.getTickCost());
+    }
+
+    /**
+     * Picks the most expensive session that still fits into the half of the load gap,
+     * so that the move always reduces the imbalance instead of flipping it.
+     */
+    @Nullable
+    private GameSession chooseSession(@NotNull GameContext victim, long budget) {
+        long now = System.nanoTime();
+        GameSession chosen = null;
+        for (GameSession session : victim.getSessions()) {
+            if (session.getLastMigrationTime() != 0 && now - session.getLastMigrationTime() < migrationCooldown) {
+                continue;
+            }
+            if (session.getTickCost() <= budget && (chosen == null || session.getTickCost() > chosen.getTickCost())) {
+                chosen = session;
+            }
+        }
+        return chosen;
+    }
+}
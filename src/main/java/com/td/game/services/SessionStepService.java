@@ -0,0 +1,151 @@
+package com.td.game.services;
+
+import com.td.game.GameSession;
+import com.td.game.TickMetrics;
+import com.td.game.TickPhase;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+@Service
+public class SessionStepService {
+
+    private final Logger log = LoggerFactory.getLogger(SessionStepService.class);
+
+    @NotNull
+    private final GameSessionService gameSessionService;
+
+    @NotNull
+    private final ServerSnaphotService serverSnaphotService;
+
+    @NotNull
+    private final MonsterWaveProcessorService waveProcessor;
+
+    @NotNull
+    private final TowerShootingService towerShootingService;
+
+    @NotNull
+    private final ExecutionMode executionMode;
+
+    private final ForkJoinPool pool;
+
+    public SessionStepService(@NotNull GameSessionService gameSessionService,
+                              @NotNull ServerSnaphotService serverSnaphotService,
+                              @NotNull MonsterWaveProcessorService waveProcessor,
+                              @NotNull TowerShootingService towerShootingService,
+                              @Value("${game.tick.execution:sequential}") String executionMode) {
+        this.gameSessionService = gameSessionService;
+        this.serverSnaphotService = serverSnaphotService;
+        this.waveProcessor = waveProcessor;
+        this.towerShootingService = towerShootingService;
+        this.executionMode = ExecutionMode.valueOf(executionMode.trim().toUpperCase());
+        this.pool = this.executionMode == ExecutionMode.PARALLEL ? new ForkJoinPool() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    public StepResult[] stepAll(@NotNull List<GameSession> sessions, long delta, @NotNull TickMetrics metrics) {
+        StepResult[] results = new StepResult[sessions.size()];
+        if (executionMode == ExecutionMode.PARALLEL && sessions.size() > 1) {
+            pool.invoke(new StepTask(sessions, results, delta, metrics, 0, sessions.size()));
+        } else {
+            for (int i = 0; i < sessions.size(); ++i) {
+                results[i] = step(sessions.get(i), delta, metrics);
+            }
+        }
+        return results;
+    }
+
+    public StepResult step(@NotNull GameSession session, long delta, @NotNull TickMetrics metrics) {
+        long start = System.nanoTime();
+        try {
+            if (!gameSessionService.isValidSession(session)) {
+                log.warn("Session is invalid, id: {}", session.getId());
+                return StepResult.INVALID;
+            }
+
+            long mark = start;
+            waveProcessor.processPassedMonsters(session);
+            mark = lap(metrics, TickPhase.PASSED_MONSTERS, mark);
+            towerShootingService.reloadTowers(session, delta);
+            mark = lap(metrics, TickPhase.RELOAD, mark);
+            towerShootingService.processTowerShooting(session);
+            mark = lap(metrics, TickPhase.SHOOTING, mark);
+            waveProcessor.processCleanup(session);
+            mark = lap(metrics, TickPhase.CLEANUP, mark);
+            waveProcessor.processWave(session, delta);
+            mark = lap(metrics, TickPhase.WAVE, mark);
+
+            if (session.isFinished()) {
+                log.trace("Session is finished, id: {}", session.getId());
+                return StepResult.FINISHED;
+            }
+            serverSnaphotService.sendServerSnapshot(session);
+            lap(metrics, TickPhase.SNAPSHOT, mark);
+            return StepResult.RUNNING;
+        } catch (RuntimeException e) {
+            log.error("Exception in session {} step: ", session.getId(), e);
+            return StepResult.INVALID;
+        } finally {
+            session.recordTickCost(System.nanoTime() - start);
+        }
+    }
+
+    private static long lap(@NotNull TickMetrics metrics, @NotNull TickPhase phase, long since) {
+        final long now = System.nanoTime();
+        metrics.record(phase, now - since);
+        return now;
+    }
+
+    public enum StepResult {
+        RUNNING,
+        FINISHED,
+        INVALID
+    }
+
+    public enum ExecutionMode {
+        SEQUENTIAL,
+        PARALLEL
+    }
+
+    private final class StepTask extends RecursiveAction {
+        private final List<GameSession> sessions;
+        private final StepResult[] results;
+        private final long delta;
+        private final TickMetrics metrics;
+        private final int from;
+        private final int to;
+
+        StepTask(List<GameSession> sessions, StepResult[] results, long delta, TickMetrics metrics, int from, int to) {
+            this.sessions = sessions;
+            this.results = results;
+            this.delta = delta;
+            this.metrics = metrics;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = step(sessions.get(from), delta, metrics);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StepTask(sessions, results, delta, metrics, from, middle),
+                    new StepTask(sessions, results, delta, metrics, middle, to));
+        }
+    }
+}
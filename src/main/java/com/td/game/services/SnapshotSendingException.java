@@ -2,6 +2,10 @@ package com.td.game.services;
 
 public class SnapshotSendingException extends RuntimeException {
 
+    public SnapshotSendingException(String message) {
+        super(message);
+    }
+
     public SnapshotSendingException(String message, Throwable cause) {
         super(message, cause);
     }
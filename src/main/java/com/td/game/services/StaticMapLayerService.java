@@ -0,0 +1,101 @@
+package com.td.game.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.td.game.domain.GameMap;
+import com.td.game.domain.TextureAtlas;
+import com.td.game.gameobjects.Path;
+import com.td.game.resource.ResourceException;
+import com.td.game.resource.ResourceSnapshot;
+import com.td.game.snapshots.StaticMapLayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes the static layer of every map definition once and remembers which layer each
+ * joining client already holds, so that the init message can skip it.
+ */
+@Service
+public class StaticMapLayerService {
+
+    public static final String TEXTURE_ATLAS_RESOURCE = "TextureAtlas.json";
+
+    @NotNull
+    private final ObjectMapper objectMapper;
+    @NotNull
+    private final PathGenerateService pathGenerator;
+
+    private final Map<ResourceSnapshot, Map<String, StaticMapLayer>> layers = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<Long, String> clientHashes = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(StaticMapLayerService.class);
+
+    public StaticMapLayerService(@NotNull ObjectMapper objectMapper,
+                                 @NotNull PathGenerateService pathGenerator) {
+        this.objectMapper = objectMapper;
+        this.pathGenerator = pathGenerator;
+    }
+
+    /**
+     * Layer of the map as defined in the given resources, it is built once per resources version.
+     */
+    @NotNull
+    public StaticMapLayer getLayer(@NotNull ResourceSnapshot resources, @NotNull String mapResource) {
+        return layers
+                .computeIfAbsent(resources, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(mapResource, key -> buildLayer(resources, key));
+    }
+
+    public void setClientHash(@NotNull Long userId, @Nullable String hash) {
+        if (hash == null) {
+            clientHashes.remove(userId);
+        } else {
+            clientHashes.put(userId, hash);
+        }
+    }
+
+    /**
+     * Checks whether the client announced the layer on join. The announcement is used once.
+     */
+    public boolean isCachedByClient(@NotNull Long userId, @NotNull StaticMapLayer layer) {
+        return layer.getHash().equals(clientHashes.remove(userId));
+    }
+
+    private StaticMapLayer buildLayer(ResourceSnapshot resources, String mapResource) {
+        final GameMap map = new GameMap(resources.loadResource(mapResource, GameMap.GameMapResource.class));
+        final Path path = pathGenerator.generatePath(resources);
+        map.setPathTiles(path.getPathPoints());
+        final TextureAtlas atlas = resources.loadResource(TEXTURE_ATLAS_RESOURCE, TextureAtlas.class);
+
+        final SerializedString mapJson = serialize(map.getSnapshot(), mapResource);
+        final SerializedString atlasJson = serialize(atlas, TEXTURE_ATLAS_RESOURCE);
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putBytes(mapJson.asUnquotedUTF8());
+        hasher.putBytes(atlasJson.asUnquotedUTF8());
+        final String hash = hasher.hash().toString();
+
+        logger.info("Static layer of {}: {} bytes, hash {}", mapResource,
+                mapJson.asUnquotedUTF8().length + atlasJson.asUnquotedUTF8().length, hash);
+        return new StaticMapLayer(new RawValue(mapJson), new RawValue(atlasJson), hash);
+    }
+
+    private SerializedString serialize(Object value, String resource) {
+        try {
+            return new SerializedString(objectMapper.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            throw new ResourceException(value.getClass(), resource, e);
+        }
+    }
+}
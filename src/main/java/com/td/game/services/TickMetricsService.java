@@ -0,0 +1,105 @@
+package com.td.game.services;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.td.game.GameContext;
+import com.td.game.TickMetrics;
+import com.td.game.TickPhase;
+import com.td.game.TickStats;
+import com.td.websocket.TransportService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the tick metrics of every game context and the transport counters to the Micrometer registry,
+ * and closes the reporting interval of the tick histograms on its own schedule.
+ */
+@Service
+public class TickMetricsService {
+
+    private final List<GameContext> contexts = new CopyOnWriteArrayList<>();
+
+    @NotNull
+    private final MeterRegistry registry;
+
+    private final long intervalMs;
+    private final ScheduledExecutorService executor;
+
+    public TickMetricsService(@NotNull MeterRegistry registry,
+                              @NotNull TransportService transportService,
+                              @Value("${game.metrics.interval-ms:10000}") long intervalMs) {
+        this.registry = registry;
+        this.intervalMs = intervalMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("td-tick-metrics")
+                .setDaemon(true)
+                .build());
+
+        FunctionCounter.builder("game.transport.bytes.sent", transportService, TransportService::getBytesSent)
+                .register(registry);
+        FunctionCounter.builder("game.transport.frames.sent", transportService, TransportService::getFramesSent)
+                .register(registry);
+        FunctionCounter.builder("game.transport.frames.dropped", transportService, TransportService::getDroppedFrames)
+                .register(registry);
+        registry.gauge("game.transport.connections", Collections.emptyList(),
+                transportService, TransportService::getConnectionsCount);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleAtFixedRate(this::rollIntervals, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    private void rollIntervals() {
+        contexts.forEach(context -> context.getTickMetrics().rollInterval());
+    }
+
+    public synchronized void registerContext(@NotNull GameContext context) {
+        final List<Tag> tags = Collections.singletonList(Tag.of("context", String.valueOf(contexts.size())));
+        contexts.add(context);
+
+        final TickMetrics metrics = context.getTickMetrics();
+        final Timer[] timers = new Timer[TickPhase.values().length];
+        for (TickPhase phase : TickPhase.values()) {
+            timers[phase.ordinal()] = Timer.builder("game.tick.phase")
+                    .tags(tags)
+                    .tag("phase", phase.getTag())
+                    .register(registry);
+        }
+        metrics.bindTimers(timers);
+
+        registry.gauge("game.sessions", tags, metrics, TickMetrics::getSessions);
+        registry.gauge("game.monsters", tags, metrics, TickMetrics::getMonsters);
+        registry.gauge("game.towers", tags, metrics, TickMetrics::getTowers);
+
+        final TickStats stats = context.getTickStats();
+        FunctionCounter.builder("game.tick.overruns", stats, TickStats::getOverruns).tags(tags).register(registry);
+        FunctionCounter.builder("game.tick.skipped", stats, TickStats::getSkippedTicks).tags(tags).register(registry);
+    }
+
+    public List<GameContext> getContexts() {
+        return Collections.unmodifiableList(contexts);
+    }
+}
@@ -5,7 +5,6 @@ import com.td.game.domain.GameMap;
 import com.td.game.domain.Player;
 import com.td.game.domain.PlayerClass;
 import com.td.game.gameobjects.Tower;
-import com.td.game.resource.ResourceFactory;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
@@ -14,13 +13,6 @@ import java.util.Map;
 @Service
 public class TowerManager {
 
-    @NotNull
-    private final ResourceFactory resourceFactory;
-
-    public TowerManager(@NotNull ResourceFactory resourceFactory) {
-        this.resourceFactory = resourceFactory;
-    }
-
     public void processOrder(@NotNull GameSession session, @NotNull TowerOrder order) {
         Map<Long, PlayerClass> playersClasses = session.getPlayersClasses();
         PlayerClass playerClass = playersClasses.get(order.getPlayerId());
@@ -39,7 +31,7 @@ public class TowerManager {
                 }
             }
 
-            Tower.TowerResource resource = resourceFactory
+            Tower.TowerResource resource = session.getResources()
                     .loadResource(order.getTowerClass(), Tower.TowerResource.class);
 
             GameMap map = session.getGameMap();
@@ -48,6 +40,7 @@ public class TowerManager {
                 Tower tower = new Tower(resource, player);
                 tower.setTilePosition(order.xcoord, order.ycoord);
                 map.placeObject(order.xcoord, order.ycoord, tower);
+                tower.computePathCoverage(session.getPaths());
                 session.getTowers().add(tower);
                 session.addArea(tower.getRangeArea());
                 player.setMoney(player.getMoney() - resource.getCost());
@@ -3,6 +3,9 @@ package com.td.game.services;
 import com.td.game.GameSession;
 import com.td.game.domain.Area;
 import com.td.game.domain.ShotEvent;
+import com.td.game.domain.TowerRangeIndex;
+import com.td.game.gameobjects.Monster;
+import com.td.game.gameobjects.MonsterStore;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
@@ -14,10 +17,16 @@ public class TowerShootingService {
 
     public void processTowerShooting(@NotNull GameSession session) {
         List<Area> areas = session.getAreas();
-        session.getCurrentWave()
-                .getRunning()
-                .forEach(monster ->
-                        areas.forEach(area -> area.addObjectIfCollision(monster)));
+        TowerRangeIndex rangeIndex = session.getRangeIndex();
+        MonsterStore store = session.getCurrentWave().getStore();
+        // areas get their monsters in the order those entered, towers aim at the first one
+        for (int i = 0; i < store.getRunningCount(); ++i) {
+            Monster monster = store.getRunningByEntry(i);
+            List<Area> covering = rangeIndex.getAreas(monster.getPathId(), monster.getPathIndex());
+            for (int j = 0; j < covering.size(); ++j) {
+                covering.get(j).addObject(monster);
+            }
+        }
         List<ShotEvent> shots = areas
                 .stream()
                 .filter(area -> area.size() > 0)
@@ -30,5 +39,4 @@ public class TowerShootingService {
     public void reloadTowers(@NotNull GameSession session, long delta) {
         session.getTowers().forEach(tower -> tower.reload(delta));
     }
-
 }
@@ -1,8 +1,8 @@
 package com.td.game.snapshots;
 
-import com.td.game.domain.GameMap;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.td.game.domain.Player;
-import com.td.game.domain.TextureAtlas;
 import com.td.game.domain.Wave;
 import com.td.websocket.Message;
 
@@ -10,30 +10,38 @@ import java.util.List;
 
 public class GameInitMessage extends Message {
     private Long playerId;
-    private GameMap.GameMapSnapshot map;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawValue map;
     private List<Player.PlayerSnapshot> players;
     private List<Integer> availableTowers;
     private Wave.WaveSnapshot currentWave;
-    private TextureAtlas textureAtlas;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RawValue textureAtlas;
+    private String mapHash;
     private Integer hp;
 
+    /**
+     * @param mapLayer static layer to embed, its hash is always sent
+     * @param layerCached the client already holds the layer, map and texture atlas are omitted
+     */
     public GameInitMessage(Long playerId,
-                           GameMap.GameMapSnapshot map,
+                           StaticMapLayer mapLayer,
+                           boolean layerCached,
                            List<Player.PlayerSnapshot> players,
                            List<Integer> availableTowers,
                            Wave.WaveSnapshot currentWave,
-                           TextureAtlas textureAtlas,
                            Integer hp) {
         this.playerId = playerId;
         this.hp = hp;
-        this.map = map;
+        this.map = layerCached ? null : mapLayer.getMap();
+        this.textureAtlas = layerCached ? null : mapLayer.getTextureAtlas();
+        this.mapHash = mapLayer.getHash();
         this.players = players;
         this.availableTowers = availableTowers;
         this.currentWave = currentWave;
-        this.textureAtlas = textureAtlas;
     }
 
-    public GameMap.GameMapSnapshot getMap() {
+    public RawValue getMap() {
         return map;
     }
 
@@ -49,10 +57,14 @@ public class GameInitMessage extends Message {
         return currentWave;
     }
 
-    public TextureAtlas getTextureAtlas() {
+    public RawValue getTextureAtlas() {
         return textureAtlas;
     }
 
+    public String getMapHash() {
+        return mapHash;
+    }
+
     public Long getPlayerId() {
         return playerId;
     }
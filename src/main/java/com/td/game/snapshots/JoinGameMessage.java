@@ -1,7 +1,29 @@
 package com.td.game.snapshots;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.td.websocket.Message;
+import org.jetbrains.annotations.Nullable;
 
 public class JoinGameMessage extends Message {
 
+    /**
+     * Hash of the static map layer the client already has, if any.
+     */
+    @Nullable
+    private final String mapHash;
+
+    public JoinGameMessage() {
+        this(null);
+    }
+
+    @JsonCreator
+    public JoinGameMessage(@JsonProperty("mapHash") @Nullable String mapHash) {
+        this.mapHash = mapHash;
+    }
+
+    @Nullable
+    public String getMapHash() {
+        return mapHash;
+    }
 }
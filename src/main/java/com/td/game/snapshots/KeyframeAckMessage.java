@@ -0,0 +1,18 @@
+package com.td.game.snapshots;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.td.websocket.Message;
+
+public class KeyframeAckMessage extends Message {
+    private final long frame;
+
+    @JsonCreator
+    public KeyframeAckMessage(@JsonProperty("frame") long frame) {
+        this.frame = frame;
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+}
@@ -0,0 +1,7 @@
+package com.td.game.snapshots;
+
+import com.td.websocket.Message;
+
+public class ResyncMessage extends Message {
+
+}
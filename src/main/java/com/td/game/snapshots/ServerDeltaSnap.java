@@ -0,0 +1,129 @@
+package com.td.game.snapshots;
+
+import com.td.game.domain.Player;
+import com.td.game.domain.ShotEvent;
+import com.td.game.gameobjects.Monster;
+import com.td.game.gameobjects.Tower;
+import com.td.websocket.Message;
+
+import java.util.List;
+
+/**
+ * Changes since the keyframe the client acknowledged: running monsters whose state differs,
+ * ids of monsters that left the wave and towers placed after the keyframe.
+ */
+public class ServerDeltaSnap extends Message {
+
+    private long frame;
+    private long baseFrame;
+    private List<Player.PlayerSnapshot> players;
+    private List<Monster.MonsterSnapshot> monsters;
+    private List<Long> removedMonsters;
+    private List<Tower.TowerSnapshot> towers;
+    private List<ShotEvent.ShotEventSnapshot> shotEvents;
+    private String waveStatus;
+    private long msToStart;
+    private int waveNumber;
+    private int hp;
+
+    public ServerDeltaSnap() {
+
+    }
+
+    public static ServerDeltaSnapBuilder builder() {
+        return new ServerDeltaSnap().new ServerDeltaSnapBuilder();
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+
+    public long getBaseFrame() {
+        return baseFrame;
+    }
+
+    public List<Player.PlayerSnapshot> getPlayers() {
+        return players;
+    }
+
+    public List<Monster.MonsterSnapshot> getMonsters() {
+        return monsters;
+    }
+
+    public List<Long> getRemovedMonsters() {
+        return removedMonsters;
+    }
+
+    public List<Tower.TowerSnapshot> getTowers() {
+        return towers;
+    }
+
+    public List<ShotEvent.ShotEventSnapshot> getShotEvents() {
+        return shotEvents;
+    }
+
+    public String getWaveStatus() {
+        return waveStatus;
+    }
+
+    public long getMsToStart() {
+        return msToStart;
+    }
+
+    public int getWaveNumber() {
+        return waveNumber;
+    }
+
+    public int getHp() {
+        return hp;
+    }
+
+    public final class ServerDeltaSnapBuilder {
+        public ServerDeltaSnapBuilder setFrames(long current, long base) {
+            frame = current;
+            baseFrame = base;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setPlayersSnap(List<Player.PlayerSnapshot> playerSnapshots) {
+            players = playerSnapshots;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setMonsters(List<Monster.MonsterSnapshot> changed, List<Long> removed) {
+            monsters = changed;
+            removedMonsters = removed;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setTowersSnap(List<Tower.TowerSnapshot> addedTowers) {
+            towers = addedTowers;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setShotEvents(List<ShotEvent.ShotEventSnapshot> shotEventsSnaps) {
+            shotEvents = shotEventsSnaps;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setWaveStatus(String status, long timeToStart) {
+            waveStatus = status;
+            msToStart = timeToStart;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setWaveNumber(int number) {
+            waveNumber = number;
+            return this;
+        }
+
+        public ServerDeltaSnapBuilder setHp(int healthpoints) {
+            hp = healthpoints;
+            return this;
+        }
+
+        public ServerDeltaSnap build() {
+            return ServerDeltaSnap.this;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.td.game.snapshots;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.td.game.domain.Player;
 import com.td.game.domain.ShotEvent;
 import com.td.game.domain.Wave;
@@ -16,7 +17,7 @@ public class ServerSnap extends Message {
     private List<ShotEvent.ShotEventSnapshot> shotEvents;
     private int waveNumber;
     private int hp;
-    private long playerId;
+    private Long frame;
 
     public ServerSnap() {
 
@@ -50,8 +51,9 @@ public class ServerSnap extends Message {
         return hp;
     }
 
-    public void setPlayerId(Long playerId) {
-        this.playerId = playerId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getFrame() {
+        return frame;
     }
 
     public final class ServerSnapBuilder {
@@ -86,6 +88,11 @@ public class ServerSnap extends Message {
             return this;
         }
 
+        public ServerSnapBuilder setFrame(Long keyframe) {
+            frame = keyframe;
+            return this;
+        }
+
         public ServerSnap build() {
             return ServerSnap.this;
         }
@@ -0,0 +1,118 @@
+package com.td.game.snapshots;
+
+import com.td.game.gameobjects.Monster;
+import com.td.game.gameobjects.Tower;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last keyframes of a game session and the keyframe each player has acknowledged.
+ * Keyframes are written and read on the tick thread, acknowledges come from socket threads.
+ */
+public class SnapshotHistory {
+
+    private static final int CAPACITY = 4;
+
+    /**
+     * Ring of the last keyframes, indexed by the keyframe count rather than the frame number, so that a keyframe
+     * interval divisible by the capacity does not put every keyframe to the same slot.
+     */
+    private final Keyframe[] keyframes = new Keyframe[CAPACITY];
+    private final Map<Long, Long> acknowledged = new ConcurrentHashMap<>();
+    private volatile boolean keyframeRequested;
+    private volatile long lastKeyframeFrame = -1;
+
+    private long frame = -1;
+    private long keyframeCount;
+    private int lastKeyframeWave = -1;
+
+    public long nextFrame() {
+        return ++frame;
+    }
+
+    public boolean isKeyframeDue(long current, int waveNumber, long interval) {
+        return keyframeRequested || waveNumber != lastKeyframeWave || current % interval == 0;
+    }
+
+    public void addKeyframe(@NotNull Keyframe keyframe) {
+        keyframeRequested = false;
+        lastKeyframeWave = keyframe.waveNumber;
+        keyframes[(int) (keyframeCount++ % CAPACITY)] = keyframe;
+        lastKeyframeFrame = keyframe.frame;
+    }
+
+    @Nullable
+    public Keyframe getAcknowledgedKeyframe(Long playerId) {
+        final Long acked = acknowledged.get(playerId);
+        if (acked == null) {
+            return null;
+        }
+        for (Keyframe keyframe : keyframes) {
+            if (keyframe != null && keyframe.frame == acked) {
+                return keyframe.waveNumber == lastKeyframeWave ? keyframe : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Acknowledges of keyframes that were not sent yet are ignored, otherwise such an acknowledge would win
+     * over all the following valid ones.
+     */
+    public void acknowledge(Long playerId, long keyframe) {
+        if (keyframe > lastKeyframeFrame) {
+            return;
+        }
+        acknowledged.merge(playerId, keyframe, Math::max);
+    }
+
+    public void resync(Long playerId) {
+        acknowledged.remove(playerId);
+        keyframeRequested = true;
+    }
+
+    public static final class Keyframe {
+        private final long frame;
+        private final int waveNumber;
+        private final Map<Long, Monster.MonsterSnapshot> monsters = new HashMap<>();
+        private final Set<Long> towers = new HashSet<>();
+
+        public Keyframe(long frame, @NotNull ServerSnap snap) {
+            this.frame = frame;
+            this.waveNumber = snap.getWaveNumber();
+            addMonsters(snap.getCurrentWave().getPending());
+            addMonsters(snap.getCurrentWave().getRunning());
+            for (Tower.TowerSnapshot tower : snap.getTowers()) {
+                towers.add(tower.getId());
+            }
+        }
+
+        private void addMonsters(List<Monster.MonsterSnapshot> snapshots) {
+            for (Monster.MonsterSnapshot monster : snapshots) {
+                monsters.put(monster.getId(), monster);
+            }
+        }
+
+        public long getFrame() {
+            return frame;
+        }
+
+        /**
+         * Monsters that were pending or running at this keyframe.
+         */
+        public Map<Long, Monster.MonsterSnapshot> getMonsters() {
+            return monsters;
+        }
+
+        public boolean hasTower(long id) {
+            return towers.contains(id);
+        }
+    }
+}
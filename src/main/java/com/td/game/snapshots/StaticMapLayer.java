@@ -0,0 +1,39 @@
+package com.td.game.snapshots;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Part of the init message that only depends on the map definition: tiles with the path laid out
+ * and the texture atlas. Both are kept as serialized JSON and written to the clients as is.
+ */
+public final class StaticMapLayer {
+
+    @NotNull
+    private final RawValue map;
+    @NotNull
+    private final RawValue textureAtlas;
+    @NotNull
+    private final String hash;
+
+    public StaticMapLayer(@NotNull RawValue map, @NotNull RawValue textureAtlas, @NotNull String hash) {
+        this.map = map;
+        this.textureAtlas = textureAtlas;
+        this.hash = hash;
+    }
+
+    @NotNull
+    public RawValue getMap() {
+        return map;
+    }
+
+    @NotNull
+    public RawValue getTextureAtlas() {
+        return textureAtlas;
+    }
+
+    @NotNull
+    public String getHash() {
+        return hash;
+    }
+}
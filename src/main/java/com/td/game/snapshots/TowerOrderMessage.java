@@ -11,10 +11,10 @@ public class TowerOrderMessage extends Message {
     private long xcoord;
 
     @JsonCreator
-    TowerOrderMessage(@JsonProperty("playerId") Long playerId,
-                      @JsonProperty("orderedTower") Integer orderedTower,
-                      @JsonProperty("x") long xcoord,
-                      @JsonProperty("y") long ycoord) {
+    public TowerOrderMessage(@JsonProperty("playerId") Long playerId,
+                             @JsonProperty("orderedTower") Integer orderedTower,
+                             @JsonProperty("x") long xcoord,
+                             @JsonProperty("y") long ycoord) {
         this.playerId = playerId;
         this.orderedTower = orderedTower;
         this.ycoord = ycoord;
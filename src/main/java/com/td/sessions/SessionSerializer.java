@@ -0,0 +1,42 @@
+package com.td.sessions;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.session.MapSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Java serialization of sessions, the attributes have to be serializable just as with the JDBC store.
+ */
+final class SessionSerializer {
+
+    private SessionSerializer() {
+    }
+
+    @NotNull
+    static byte[] serialize(@NotNull MapSession session) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(session);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize session " + session.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @NotNull
+    static MapSession deserialize(@NotNull byte[] serialized) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (MapSession) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to deserialize session", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to deserialize session", e);
+        }
+    }
+}
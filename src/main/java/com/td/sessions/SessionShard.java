@@ -0,0 +1,187 @@
+package com.td.sessions;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.session.MapSession;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Part of the sessions with its own lock and expiry wheel: a ring of slots, one per tick, holding the ids of the
+ * sessions expiring within the tick. The wheel spans slots * tick, sessions expiring later stay in their slot
+ * for more rounds. A session is moved between slots on save, so the sweep only visits the slots of elapsed ticks.
+ */
+final class SessionShard {
+
+    private static final int NO_SLOT = -1;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final List<Set<String>> slots;
+    private final long tickMillis;
+    private final boolean offHeap;
+    private long sweptTick;
+
+    SessionShard(int slots, long tickMillis, boolean offHeap, long now) {
+        this.slots = new ArrayList<>(slots);
+        for (int i = 0; i < slots; ++i) {
+            this.slots.add(new HashSet<>());
+        }
+        this.tickMillis = tickMillis;
+        this.offHeap = offHeap;
+        this.sweptTick = now / tickMillis - 1;
+    }
+
+    /**
+     * @return a copy of the session, changes are visible to others after {@link #put}
+     */
+    @Nullable
+    MapSession get(@NotNull String id, long now) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                remove(id);
+                return null;
+            }
+        }
+        return entry.load();
+    }
+
+    /**
+     * Stores a copy of the session, serialized to a direct buffer if the shard is off-heap.
+     */
+    void put(@NotNull MapSession session, long now) {
+        final long expiresAt = getExpiresAt(session);
+        if (expiresAt <= now) {
+            remove(session.getId());
+            return;
+        }
+        final int slot = expiresAt == Long.MAX_VALUE ? NO_SLOT : (int) (expiresAt / tickMillis % slots.size());
+        final Entry entry = offHeap
+                ? Entry.offHeap(expiresAt, slot, SessionSerializer.serialize(session))
+                : Entry.onHeap(expiresAt, slot, new MapSession(session));
+        synchronized (this) {
+            final Entry previous = entries.put(session.getId(), entry);
+            if (previous != null && previous.slot != slot && previous.slot != NO_SLOT) {
+                slots.get(previous.slot).remove(session.getId());
+            }
+            if (slot != NO_SLOT) {
+                slots.get(slot).add(session.getId());
+            }
+        }
+    }
+
+    synchronized void remove(@NotNull String id) {
+        final Entry entry = entries.remove(id);
+        if (entry != null && entry.slot != NO_SLOT) {
+            slots.get(entry.slot).remove(id);
+        }
+    }
+
+    /**
+     * Removes the sessions of the fully elapsed ticks.
+     *
+     * @return the number of removed sessions
+     */
+    synchronized int expire(long now) {
+        final long lastTick = now / tickMillis - 1;
+        final long from = Math.max(sweptTick + 1, lastTick - slots.size() + 1);
+        int expired = 0;
+        for (long tick = from; tick <= lastTick; ++tick) {
+            final Iterator<String> ids = slots.get((int) (tick % slots.size())).iterator();
+            while (ids.hasNext()) {
+                final String id = ids.next();
+                if (entries.get(id).expiresAt <= now) {
+                    ids.remove();
+                    entries.remove(id);
+                    ++expired;
+                }
+            }
+        }
+        sweptTick = Math.max(sweptTick, lastTick);
+        return expired;
+    }
+
+    /**
+     * Adds the serialized live sessions to the snapshot.
+     */
+    void snapshot(@NotNull List<byte[]> snapshot, long now) {
+        final List<Entry> live = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (entry.expiresAt > now) {
+                    live.add(entry);
+                }
+            }
+        }
+        live.forEach(entry -> snapshot.add(entry.bytes()));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static long getExpiresAt(@NotNull MapSession session) {
+        final long maxInactive = session.getMaxInactiveInterval().toMillis();
+        if (maxInactive < 0) {
+            return Long.MAX_VALUE;
+        }
+        return session.getLastAccessedTime().toEpochMilli() + maxInactive;
+    }
+
+    private static final class Entry {
+        private final long expiresAt;
+        private final int slot;
+        @Nullable
+        private final MapSession session;
+        @Nullable
+        private final ByteBuffer buffer;
+
+        private Entry(long expiresAt, int slot, @Nullable MapSession session, @Nullable ByteBuffer buffer) {
+            this.expiresAt = expiresAt;
+            this.slot = slot;
+            this.session = session;
+            this.buffer = buffer;
+        }
+
+        static Entry onHeap(long expiresAt, int slot, @NotNull MapSession session) {
+            return new Entry(expiresAt, slot, session, null);
+        }
+
+        static Entry offHeap(long expiresAt, int slot, @NotNull byte[] serialized) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(serialized.length);
+            buffer.put(serialized);
+            return new Entry(expiresAt, slot, null, buffer);
+        }
+
+        @NotNull
+        MapSession load() {
+            if (session != null) {
+                return new MapSession(session);
+            }
+            return SessionSerializer.deserialize(bytes());
+        }
+
+        @NotNull
+        byte[] bytes() {
+            if (session != null) {
+                return SessionSerializer.serialize(session);
+            }
+            final byte[] serialized = new byte[buffer.capacity()];
+            final ByteBuffer view = buffer.duplicate();
+            view.clear();
+            view.get(serialized);
+            return serialized;
+        }
+    }
+}
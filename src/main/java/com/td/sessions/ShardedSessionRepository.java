@@ -0,0 +1,188 @@
+package com.td.sessions;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process session store. Sessions are spread over shards, each with its own lock and expiry wheel, and may be
+ * kept serialized in direct buffers to stay off the heap. Live sessions are periodically written to a local
+ * snapshot file, which is loaded on start, so that a restart does not sign everybody out.
+ */
+public class ShardedSessionRepository implements SessionRepository<MapSession> {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Logger log = LoggerFactory.getLogger(ShardedSessionRepository.class);
+
+    private final SessionShard[] shards;
+    private final Duration maxInactiveInterval;
+    private final long tickMillis;
+
+    @Nullable
+    private final Path snapshot;
+    private final long snapshotPeriodMs;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param snapshot file to keep the sessions in across restarts, null to disable snapshots
+     */
+    public ShardedSessionRepository(int shards,
+                                    @NotNull Duration maxInactiveInterval,
+                                    long tickMillis,
+                                    int wheelSlots,
+                                    boolean offHeap,
+                                    @Nullable String snapshot,
+                                    long snapshotPeriodMs) {
+        final long now = System.currentTimeMillis();
+        this.shards = new SessionShard[shards];
+        for (int i = 0; i < shards; ++i) {
+            this.shards[i] = new SessionShard(wheelSlots, tickMillis, offHeap, now);
+        }
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.tickMillis = tickMillis;
+        this.snapshot = snapshot == null || snapshot.isEmpty() ? null : Paths.get(snapshot).toAbsolutePath();
+        this.snapshotPeriodMs = snapshotPeriodMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("td-sessions")
+                .setDaemon(true)
+                .build());
+    }
+
+    @PostConstruct
+    public void start() {
+        loadSnapshot();
+        executor.scheduleAtFixedRate(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        if (snapshot != null && snapshotPeriodMs > 0) {
+            executor.scheduleWithFixedDelay(this::writeSnapshot, snapshotPeriodMs, snapshotPeriodMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(tickMillis, TimeUnit.MILLISECONDS);
+        writeSnapshot();
+    }
+
+    @Override
+    public MapSession createSession() {
+        final MapSession session = new MapSession();
+        session.setMaxInactiveInterval(maxInactiveInterval);
+        return session;
+    }
+
+    @Override
+    public void save(MapSession session) {
+        if (!session.getId().equals(session.getOriginalId())) {
+            getShard(session.getOriginalId()).remove(session.getOriginalId());
+            session.setOriginalId(session.getId());
+        }
+        getShard(session.getId()).put(session, System.currentTimeMillis());
+    }
+
+    @Override
+    public MapSession findById(String id) {
+        return getShard(id).get(id, System.currentTimeMillis());
+    }
+
+    @Override
+    public void deleteById(String id) {
+        getShard(id).remove(id);
+    }
+
+    public int size() {
+        int size = 0;
+        for (SessionShard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private SessionShard getShard(@NotNull String id) {
+        return shards[Math.floorMod(id.hashCode(), shards.length)];
+    }
+
+    private void expire() {
+        try {
+            final long now = System.currentTimeMillis();
+            for (SessionShard shard : shards) {
+                shard.expire(now);
+            }
+        } catch (RuntimeException e) {
+            log.error("Exception on sessions expiry: ", e);
+        }
+    }
+
+    private void writeSnapshot() {
+        if (snapshot == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<byte[]> sessions = new ArrayList<>();
+        final Path written = Paths.get(snapshot + ".tmp");
+        try {
+            for (SessionShard shard : shards) {
+                shard.snapshot(sessions, now);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(written)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(sessions.size());
+                for (byte[] session : sessions) {
+                    out.writeInt(session.length);
+                    out.write(session);
+                }
+            }
+            Files.move(written, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Unable to write the sessions snapshot: ", e);
+        }
+    }
+
+    private void loadSnapshot() {
+        if (snapshot == null || !Files.exists(snapshot)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Unknown sessions snapshot version, starting with no sessions");
+                return;
+            }
+            final int count = in.readInt();
+            for (int i = 0; i < count; ++i) {
+                final byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                final MapSession session = SessionSerializer.deserialize(serialized);
+                getShard(session.getId()).put(session, now);
+            }
+            log.info("Loaded {} sessions from the snapshot", size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to load the sessions snapshot, starting with {} sessions: ", size(), e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.td.websocket;
+
+import com.td.game.domain.Player;
+import com.td.game.domain.ShotEvent;
+import com.td.game.domain.Wave;
+import com.td.game.gameobjects.Monster;
+import com.td.game.gameobjects.Tower;
+import com.td.game.snapshots.JoinGameMessage;
+import com.td.game.snapshots.KeyframeAckMessage;
+import com.td.game.snapshots.ResyncMessage;
+import com.td.game.snapshots.ServerDeltaSnap;
+import com.td.game.snapshots.ServerSnap;
+import com.td.game.snapshots.TowerOrderMessage;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact big-endian encoding of the per-tick game messages. Every frame starts with a one byte type,
+ * ids are int32, tile coordinates int16, hp int32 and relative offsets int16 fixed point
+ * with {@link #OFFSET_SCALE} units per tile. Lists are prefixed with an uint16 size.
+ * Strings are uint16 length prefixed UTF-8, "join" may carry the hash of the cached static map layer.
+ * Messages without a binary layout ("init", "finish") are sent as JSON text frames.
+ */
+@Service
+public class BinaryMessageCodec implements MessageCodec {
+
+    public static final String PROTOCOL = "td.binary.v1";
+
+    public static final int OFFSET_SCALE = 1 << 14;
+
+    public static final byte STATE = 1;
+    public static final byte DELTA = 2;
+    public static final byte JOIN = 16;
+    public static final byte TOWER_ORDER = 17;
+    public static final byte KEYFRAME_ACK = 18;
+    public static final byte RESYNC = 19;
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final long NO_FRAME = -1;
+    private static final int UINT16_MASK = 0xFFFF;
+
+    @NotNull
+    private final JsonMessageCodec jsonCodec;
+
+    public BinaryMessageCodec(@NotNull JsonMessageCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+    }
+
+    @NotNull
+    @Override
+    public WebSocketMessage<?> encode(@NotNull Message message) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        if (message instanceof ServerSnap) {
+            writeState(out, (ServerSnap) message);
+        } else if (message instanceof ServerDeltaSnap) {
+            writeDelta(out, (ServerDeltaSnap) message);
+        } else {
+            return jsonCodec.encode(message);
+        }
+        out.flush();
+        return new BinaryMessage(bytes.toByteArray());
+    }
+
+    @NotNull
+    @Override
+    public Message decode(@NotNull WebSocketMessage<?> message) throws IOException {
+        if (!(message instanceof BinaryMessage)) {
+            return jsonCodec.decode(message);
+        }
+        final ByteBuffer in = ((BinaryMessage) message).getPayload();
+        try {
+            final byte type = in.get();
+            switch (type) {
+                case JOIN:
+                    return new JoinGameMessage(in.hasRemaining() ? readString(in) : null);
+                case TOWER_ORDER:
+                    final int orderedTower = in.getInt();
+                    final short xcoord = in.getShort();
+                    final short ycoord = in.getShort();
+                    return new TowerOrderMessage(null, orderedTower, xcoord, ycoord);
+                case KEYFRAME_ACK:
+                    return new KeyframeAckMessage(in.getLong());
+                case RESYNC:
+                    return new ResyncMessage();
+                default:
+                    throw new IOException("Unknown message type " + type);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated message", e);
+        }
+    }
+
+    private String readString(ByteBuffer in) {
+        final byte[] bytes = new byte[in.getShort() & UINT16_MASK];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeState(DataOutputStream out, ServerSnap snap) throws IOException {
+        out.writeByte(STATE);
+        out.writeLong(snap.getFrame() == null ? NO_FRAME : snap.getFrame());
+        out.writeInt(snap.getHp());
+        out.writeShort(snap.getWaveNumber());
+        writePlayers(out, snap.getPlayers());
+        final Wave.WaveSnapshot wave = snap.getCurrentWave();
+        writeWaveStatus(out, wave.getStatus(), wave.getMsToStart());
+        writeMonsters(out, wave.getPending());
+        writeMonsters(out, wave.getRunning());
+        writeMonsters(out, wave.getPassed());
+        writeTowers(out, snap.getTowers());
+        writeShotEvents(out, snap.getShotEvents());
+    }
+
+    private void writeDelta(DataOutputStream out, ServerDeltaSnap delta) throws IOException {
+        out.writeByte(DELTA);
+        out.writeLong(delta.getFrame());
+        out.writeLong(delta.getBaseFrame());
+        out.writeInt(delta.getHp());
+        out.writeShort(delta.getWaveNumber());
+        writePlayers(out, delta.getPlayers());
+        writeWaveStatus(out, delta.getWaveStatus(), delta.getMsToStart());
+        writeMonsters(out, delta.getMonsters());
+        out.writeShort(delta.getRemovedMonsters().size());
+        for (Long id : delta.getRemovedMonsters()) {
+            out.writeInt(id.intValue());
+        }
+        writeTowers(out, delta.getTowers());
+        writeShotEvents(out, delta.getShotEvents());
+    }
+
+    private void writePlayers(DataOutputStream out, List<Player.PlayerSnapshot> players) throws IOException {
+        out.writeShort(players.size());
+        for (Player.PlayerSnapshot player : players) {
+            out.writeInt(player.getId().intValue());
+            out.writeLong(player.getMoney());
+            out.writeInt(player.getScores());
+            writeString(out, player.getPlayerClass());
+            writeString(out, player.getNickname());
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > UINT16_MASK) {
+            throw new IOException("String of " + bytes.length + " bytes is too long");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeWaveStatus(DataOutputStream out, String status, long msToStart) throws IOException {
+        out.writeByte(Wave.WaveStatus.valueOf(status.toUpperCase()).ordinal());
+        out.writeInt((int) msToStart);
+    }
+
+    private void writeMonsters(DataOutputStream out, List<Monster.MonsterSnapshot> monsters) throws IOException {
+        out.writeShort(monsters.size());
+        for (Monster.MonsterSnapshot monster : monsters) {
+            out.writeInt(monster.getId().intValue());
+            out.writeShort(monster.getTypeid());
+            out.writeInt(monster.getHp());
+            out.writeFloat((float) monster.getSpeed());
+            out.writeShort(monster.getTileCoord().getXcoord().intValue());
+            out.writeShort(monster.getTileCoord().getYcoord().intValue());
+            out.writeShort((int) Math.round(monster.getRelativeCoord().getXcoord() * OFFSET_SCALE));
+            out.writeShort((int) Math.round(monster.getRelativeCoord().getYcoord() * OFFSET_SCALE));
+            out.writeByte(monster.getDirection());
+        }
+    }
+
+    private void writeTowers(DataOutputStream out, List<Tower.TowerSnapshot> towers) throws IOException {
+        out.writeShort(towers.size());
+        for (Tower.TowerSnapshot tower : towers) {
+            out.writeInt((int) tower.getId());
+            out.writeShort(tower.getTypeid());
+            out.writeShort(tower.getTilePosition().getXcoord().intValue());
+            out.writeShort(tower.getTilePosition().getYcoord().intValue());
+            out.writeInt(tower.getDamage());
+            out.writeInt((int) tower.getPeriod());
+            out.writeShort(tower.getRange());
+            out.writeInt(tower.getCost());
+        }
+    }
+
+    private void writeShotEvents(DataOutputStream out, List<ShotEvent.ShotEventSnapshot> shotEvents) throws IOException {
+        out.writeShort(shotEvents.size());
+        for (ShotEvent.ShotEventSnapshot shot : shotEvents) {
+            out.writeInt(shot.getMonsterId().intValue());
+            out.writeInt(shot.getTowerId().intValue());
+            out.writeInt(shot.getOffset().intValue());
+        }
+    }
+}
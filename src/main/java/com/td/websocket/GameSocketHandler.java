@@ -1,27 +1,29 @@
 package com.td.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.td.daos.UserDao;
-import com.td.domain.User;
+import com.td.daos.UserCache;
+import com.td.game.services.StaticMapLayerService;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
 import java.io.IOException;
 
 import static com.td.Constants.USER_SESSION_KEY;
 
 
-public class GameSocketHandler extends TextWebSocketHandler {
+public class GameSocketHandler extends AbstractWebSocketHandler {
     private final Logger log = LoggerFactory.getLogger(GameSocketHandler.class);
     private static final CloseStatus UNAUTHORIZED = new CloseStatus(4001, "Unauthorized");
 
     @NotNull
-    private final UserDao userService;
+    private final UserCache userCache;
 
     @NotNull
     private final MessageHandlersContainer handlers;
@@ -30,53 +32,83 @@ public class GameSocketHandler extends TextWebSocketHandler {
     private final TransportService transport;
 
     @NotNull
-    private final ObjectMapper mapper;
+    private final JsonMessageCodec jsonCodec;
+
+    @NotNull
+    private final BinaryMessageCodec binaryCodec;
+
+    @NotNull
+    private final StaticMapLayerService mapLayerService;
 
 
-    public GameSocketHandler(@NotNull UserDao userService,
+    public GameSocketHandler(@NotNull UserCache userCache,
                              @NotNull MessageHandlersContainer handlers,
                              @NotNull TransportService transport,
-                             @NotNull ObjectMapper mapper) {
-        this.userService = userService;
+                             @NotNull JsonMessageCodec jsonCodec,
+                             @NotNull BinaryMessageCodec binaryCodec,
+                             @NotNull StaticMapLayerService mapLayerService) {
+        this.userCache = userCache;
         this.handlers = handlers;
         this.transport = transport;
-        this.mapper = mapper;
+        this.jsonCodec = jsonCodec;
+        this.binaryCodec = binaryCodec;
+        this.mapLayerService = mapLayerService;
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession webSocketSession) {
         final Long id = (Long) webSocketSession.getAttributes().get(USER_SESSION_KEY);
-        if (id == null || userService.getUserById(id) == null) {
+        if (id == null || userCache.getUser(id) == null) {
             closeSession(webSocketSession, UNAUTHORIZED);
             return;
         }
-        transport.registerUser(id, webSocketSession);
+        final MessageCodec codec = BinaryMessageCodec.PROTOCOL.equals(webSocketSession.getAcceptedProtocol())
+                ? binaryCodec : jsonCodec;
+        transport.registerUser(id, webSocketSession, codec);
+        transport.ping(id);
+    }
+
+    @Override
+    protected void handlePongMessage(WebSocketSession webSocketSession, PongMessage message) {
+        final Long id = (Long) webSocketSession.getAttributes().get(USER_SESSION_KEY);
+        if (id != null) {
+            transport.onPong(id, message.getPayload());
+        }
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession webSocketSession, TextMessage message) {
+        handleGameMessage(webSocketSession, message, jsonCodec);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession webSocketSession, BinaryMessage message) {
+        handleGameMessage(webSocketSession, message, binaryCodec);
+    }
+
+    private void handleGameMessage(WebSocketSession webSocketSession, WebSocketMessage<?> message, MessageCodec codec) {
         if (!webSocketSession.isOpen()) {
             return;
         }
+        // The user was checked on connect, the id in the attributes is trusted for the rest of the connection
         final Long id = (Long) webSocketSession.getAttributes().get(USER_SESSION_KEY);
-        final User user = userService.getUserById(id);
-        if (id == null || user == null) {
+        if (id == null) {
             closeSession(webSocketSession, UNAUTHORIZED);
             return;
         }
-        handle(user, message);
+        handle(id, message, codec);
 
     }
 
-    private void handle(User user, TextMessage rawMessage) {
+    private void handle(Long id, WebSocketMessage<?> rawMessage, MessageCodec codec) {
         final Message message;
         try {
-            message = mapper.readValue(rawMessage.getPayload(), Message.class);
+            message = codec.decode(rawMessage);
         } catch (IOException ex) {
             log.error("Invalid message: {}", ex);
             return;
         }
-        handlers.handle(message, user.getId());
+        handlers.handle(message, id);
     }
 
     private void closeSession(WebSocketSession session, CloseStatus status) {
@@ -93,6 +125,8 @@ public class GameSocketHandler extends TextWebSocketHandler {
         final Long userId = (Long) webSocketSession.getAttributes().get(USER_SESSION_KEY);
         if (userId != null) {
             transport.removeUser(userId);
+            // the announced map hash is only read when a game starts, which may never happen
+            mapLayerService.setClientHash(userId, null);
         }
     }
 
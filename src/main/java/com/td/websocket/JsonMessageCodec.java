@@ -0,0 +1,37 @@
+package com.td.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+
+@Service
+public class JsonMessageCodec implements MessageCodec {
+
+    public static final String PROTOCOL = "td.json";
+
+    @NotNull
+    private final ObjectMapper mapper;
+
+    public JsonMessageCodec(@NotNull ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @NotNull
+    @Override
+    public WebSocketMessage<?> encode(@NotNull Message message) throws IOException {
+        return new TextMessage(mapper.writeValueAsString(message));
+    }
+
+    @NotNull
+    @Override
+    public Message decode(@NotNull WebSocketMessage<?> message) throws IOException {
+        if (!(message instanceof TextMessage)) {
+            throw new IOException("Text frame expected");
+        }
+        return mapper.readValue(((TextMessage) message).getPayload(), Message.class);
+    }
+}
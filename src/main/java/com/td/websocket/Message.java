@@ -13,7 +13,10 @@ import com.td.game.snapshots.*;
         @JsonSubTypes.Type(value = JoinGameMessage.class, name = "join"),
         @JsonSubTypes.Type(value = GameFinishMessage.class, name = "finish"),
         @JsonSubTypes.Type(value = ServerSnap.class, name = "state"),
+        @JsonSubTypes.Type(value = ServerDeltaSnap.class, name = "delta"),
         @JsonSubTypes.Type(value = TowerOrderMessage.class, name = "towerOrder"),
+        @JsonSubTypes.Type(value = KeyframeAckMessage.class, name = "keyframeAck"),
+        @JsonSubTypes.Type(value = ResyncMessage.class, name = "resync"),
 })
 public abstract class Message {
 }
@@ -0,0 +1,15 @@
+package com.td.websocket;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+
+public interface MessageCodec {
+
+    @NotNull
+    WebSocketMessage<?> encode(@NotNull Message message) throws IOException;
+
+    @NotNull
+    Message decode(@NotNull WebSocketMessage<?> message) throws IOException;
+}
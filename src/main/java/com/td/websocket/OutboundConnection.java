@@ -0,0 +1,183 @@
+package com.td.websocket;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+class OutboundConnection {
+
+    private static final long RTT_SMOOTHING = 4;
+
+    @NotNull
+    private final WebSocketSession session;
+    @NotNull
+    private final MessageCodec codec;
+    private final int capacity;
+    private final Deque<Frame> queue = new ArrayDeque<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    @NotNull
+    private final LongAdder droppedFrames;
+    private volatile long rttNanos = -1;
+
+    /**
+     * @param droppedFrames counter of the frames dropped unsent, shared by all connections
+     */
+    OutboundConnection(@NotNull WebSocketSession session, @NotNull MessageCodec codec, int capacity,
+                       @NotNull LongAdder droppedFrames) {
+        this.session = session;
+        this.codec = codec;
+        this.capacity = capacity;
+        this.droppedFrames = droppedFrames;
+    }
+
+    @NotNull
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    @NotNull
+    MessageCodec getCodec() {
+        return codec;
+    }
+
+    boolean isOpen() {
+        return session.isOpen();
+    }
+
+    /**
+     * Queues the frame, replacing stale droppable frames.
+     *
+     * @return false if the queue is full of frames that can't be dropped
+     */
+    synchronized boolean offer(@NotNull Frame frame) {
+        if (frame.isDroppable()) {
+            dropStaleFrames();
+        }
+        if (queue.size() >= capacity) {
+            dropStaleFrames();
+            if (queue.size() >= capacity) {
+                return false;
+            }
+        }
+        queue.addLast(frame);
+        return true;
+    }
+
+    /**
+     * Drops everything queued and leaves only the close frame, so that the session is closed by the io thread
+     * that drains the queue rather than by the caller.
+     */
+    synchronized void abort(@NotNull CloseStatus status) {
+        droppedFrames.add(queue.size());
+        queue.clear();
+        queue.addLast(Frame.close(status));
+    }
+
+    @Nullable
+    synchronized Frame poll() {
+        return queue.pollFirst();
+    }
+
+    synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Round trip time smoothed over the recent pings, -1 until the first pong.
+     */
+    long getRttNanos() {
+        return rttNanos;
+    }
+
+    void recordRtt(long sampleNanos) {
+        final long current = rttNanos;
+        rttNanos = current < 0 ? sampleNanos : current + (sampleNanos - current) / RTT_SMOOTHING;
+    }
+
+    boolean tryToSchedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    void unschedule() {
+        scheduled.set(false);
+    }
+
+    private void dropStaleFrames() {
+        Iterator<Frame> iter = queue.iterator();
+        while (iter.hasNext()) {
+            if (iter.next().isDroppable()) {
+                iter.remove();
+                droppedFrames.increment();
+            }
+        }
+    }
+
+    static final class Frame {
+        @Nullable
+        private final SharedMessage message;
+        @Nullable
+        private final WebSocketMessage<?> control;
+        @Nullable
+        private final CloseStatus closeStatus;
+        private final boolean droppable;
+
+        private Frame(@Nullable SharedMessage message, @Nullable WebSocketMessage<?> control,
+                      @Nullable CloseStatus closeStatus, boolean droppable) {
+            this.message = message;
+            this.control = control;
+            this.closeStatus = closeStatus;
+            this.droppable = droppable;
+        }
+
+        static Frame reliable(@NotNull Message message) {
+            return new Frame(new SharedMessage(message), null, null, false);
+        }
+
+        static Frame droppable(@NotNull SharedMessage message) {
+            return new Frame(message, null, null, true);
+        }
+
+        static Frame close(@NotNull CloseStatus status) {
+            return new Frame(null, null, status, false);
+        }
+
+        /**
+         * Ping carrying the time it was queued at, the pong echoes it back.
+         */
+        static Frame ping(long sentAtNanos) {
+            final ByteBuffer payload = ByteBuffer.allocate(Long.BYTES);
+            payload.putLong(sentAtNanos);
+            payload.flip();
+            return new Frame(null, new PingMessage(payload), null, false);
+        }
+
+        @Nullable
+        SharedMessage getMessage() {
+            return message;
+        }
+
+        @Nullable
+        WebSocketMessage<?> getControl() {
+            return control;
+        }
+
+        @Nullable
+        CloseStatus getCloseStatus() {
+            return closeStatus;
+        }
+
+        boolean isDroppable() {
+            return droppable;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.td.websocket;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message that is encoded once per codec and then written as is to every recipient.
+ */
+public final class SharedMessage {
+
+    @NotNull
+    private final Message message;
+    private final Map<MessageCodec, WebSocketMessage<?>> encoded = new ConcurrentHashMap<>(2);
+
+    public SharedMessage(@NotNull Message message) {
+        this.message = message;
+    }
+
+    @NotNull
+    public Message getMessage() {
+        return message;
+    }
+
+    @NotNull
+    WebSocketMessage<?> encode(@NotNull MessageCodec codec) throws IOException {
+        WebSocketMessage<?> result = encoded.get(codec);
+        if (result == null) {
+            synchronized (this) {
+                result = encoded.get(codec);
+                if (result == null) {
+                    result = codec.encode(message);
+                    encoded.put(codec, result);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,36 +1,77 @@
 package com.td.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.td.domain.User;
+import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class TransportService {
 
+    private static final CloseStatus SLOW_CONSUMER = CloseStatus.SESSION_NOT_RELIABLE.withReason("Send queue overflow");
+
     private final Logger log = LoggerFactory.getLogger(TransportService.class);
 
-    private Map<Long, WebSocketSession> sessions = new ConcurrentHashMap<>();
-    private final ObjectMapper mapper;
+    private Map<Long, OutboundConnection> sessions = new ConcurrentHashMap<>();
+
+    private final ExecutorService ioExecutor;
+    private final ScheduledExecutorService pingExecutor;
+    private final int sendQueueCapacity;
+    private final int maxFramesPerDrain;
+
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
+
+    public TransportService(@Value("${transport.io-threads:2}") int ioThreads,
+                            @Value("${transport.send-queue-capacity:16}") int sendQueueCapacity,
+                            @Value("${transport.max-frames-per-drain:8}") int maxFramesPerDrain,
+                            @Value("${transport.ping-period-ms:5000}") long pingPeriodMs) {
+        this.sendQueueCapacity = sendQueueCapacity;
+        this.maxFramesPerDrain = maxFramesPerDrain;
+        this.ioExecutor = Executors.newFixedThreadPool(ioThreads, new ThreadFactoryBuilder()
+                .setNameFormat("td-io-%d")
+                .setDaemon(true)
+                .build());
+        this.pingExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("td-ping")
+                .setDaemon(true)
+                .build());
+        if (pingPeriodMs > 0) {
+            pingExecutor.scheduleAtFixedRate(this::pingAll, pingPeriodMs, pingPeriodMs, TimeUnit.MILLISECONDS);
+        }
+    }
 
-    public TransportService(ObjectMapper mapper) {
-        this.mapper = mapper;
+    @PreDestroy
+    public void shutdown() {
+        pingExecutor.shutdownNow();
+        ioExecutor.shutdown();
     }
 
-    public void registerUser(Long id, WebSocketSession session) {
-        sessions.put(id, session);
+    public void registerUser(Long id, WebSocketSession session, MessageCodec codec) {
+        sessions.put(id, new OutboundConnection(session, codec, sendQueueCapacity, droppedFrames));
     }
 
     public boolean isConnected(Long id) {
-        return sessions.containsKey(id) && sessions.get(id).isOpen();
+        final OutboundConnection connection = sessions.get(id);
+        return connection != null && connection.isOpen();
     }
 
     public boolean isConnected(User user) {
@@ -42,27 +83,170 @@ public class TransportService {
     }
 
     public void closeSession(Long id, CloseStatus status) {
-        final WebSocketSession session = sessions.get(id);
-        if (session != null && session.isOpen()) {
-            try {
-                session.close(status);
-                flushSession(id);
-            } catch (IOException e) {
-                log.error("Error on session closing: {}", e);
-            }
+        final OutboundConnection connection = sessions.get(id);
+        if (connection != null && connection.isOpen()) {
+            enqueue(id, connection, OutboundConnection.Frame.close(status));
         }
     }
 
     public void sendMessageToUser(Long id, Message message) throws IOException {
-        final WebSocketSession session = sessions.get(id);
-        if (session != null && session.isOpen()) {
-            session.sendMessage(new TextMessage(mapper.writeValueAsString(message)));
-            return;
-        }
-        throw new IOException("Fail on message send: session for " + id + " doesn't exists");
+        enqueue(id, OutboundConnection.Frame.reliable(message));
+    }
+
+    /**
+     * Sends a message that may be replaced by a newer one while the client is behind,
+     * e.g. a state snapshot. The same instance may be sent to several users, it is encoded only once.
+     */
+    public void sendStateToUser(Long id, SharedMessage message) throws IOException {
+        enqueue(id, OutboundConnection.Frame.droppable(message));
     }
 
     public void removeUser(Long userId) {
         sessions.remove(userId);
     }
+
+    public void ping(Long id) {
+        final OutboundConnection connection = sessions.get(id);
+        if (connection != null && connection.isOpen()) {
+            enqueue(id, connection, OutboundConnection.Frame.ping(System.nanoTime()));
+        }
+    }
+
+    public void onPong(Long id, ByteBuffer payload) {
+        final OutboundConnection connection = sessions.get(id);
+        if (connection != null && payload.remaining() >= Long.BYTES) {
+            connection.recordRtt(System.nanoTime() - payload.getLong(payload.position()));
+        }
+    }
+
+    /**
+     * Smoothed round trip time of the connection including its send queue, -1 if not measured yet.
+     */
+    public long getRttMillis(Long id) {
+        final OutboundConnection connection = sessions.get(id);
+        if (connection == null || connection.getRttNanos() < 0) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(connection.getRttNanos());
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    /**
+     * Frames dropped unsent: stale droppable frames replaced by newer ones and the queues of aborted connections.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.sum();
+    }
+
+    public int getConnectionsCount() {
+        return sessions.size();
+    }
+
+    private void pingAll() {
+        try {
+            sessions.keySet().forEach(this::ping);
+        } catch (RuntimeException e) {
+            log.error("Fail on ping: {}", e);
+        }
+    }
+
+    private void enqueue(Long id, OutboundConnection.Frame frame) throws IOException {
+        final OutboundConnection connection = sessions.get(id);
+        if (connection == null || !connection.isOpen()) {
+            throw new IOException("Fail on message send: session for " + id + " doesn't exists");
+        }
+        enqueue(id, connection, frame);
+    }
+
+    private void enqueue(Long id, @NotNull OutboundConnection connection, @NotNull OutboundConnection.Frame frame) {
+        if (!connection.offer(frame)) {
+            log.warn("Send queue overflow for user {}, closing connection", id);
+            connection.abort(SLOW_CONSUMER);
+        }
+        schedule(id, connection);
+    }
+
+    private void schedule(Long id, @NotNull OutboundConnection connection) {
+        if (connection.tryToSchedule()) {
+            ioExecutor.execute(() -> drain(id, connection));
+        }
+    }
+
+    private void drain(Long id, @NotNull OutboundConnection connection) {
+        boolean open = false;
+        try {
+            open = drainBatch(id, connection);
+        } catch (RuntimeException e) {
+            log.error("Fail on message send to {}: ", id, e);
+            closeNow(id, connection, CloseStatus.SERVER_ERROR);
+        } finally {
+            connection.unschedule();
+        }
+        if (open && !connection.isEmpty()) {
+            schedule(id, connection);
+        }
+    }
+
+    /**
+     * @return false if the connection got closed
+     */
+    private boolean drainBatch(Long id, @NotNull OutboundConnection connection) {
+        for (int sent = 0; sent < maxFramesPerDrain; ++sent) {
+            final OutboundConnection.Frame frame = connection.poll();
+            if (frame == null) {
+                break;
+            }
+            if (!write(id, connection, frame)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean write(Long id, @NotNull OutboundConnection connection, @NotNull OutboundConnection.Frame frame) {
+        final WebSocketSession session = connection.getSession();
+        if (frame.getCloseStatus() != null) {
+            closeNow(id, connection, frame.getCloseStatus());
+            return false;
+        }
+        if (!session.isOpen()) {
+            flushSession(id, connection);
+            return false;
+        }
+        try {
+            final WebSocketMessage<?> encoded = frame.getControl() != null
+                    ? frame.getControl() : frame.getMessage().encode(connection.getCodec());
+            session.sendMessage(encoded);
+            bytesSent.add(encoded.getPayloadLength());
+            framesSent.increment();
+            return true;
+        } catch (IOException e) {
+            log.error("Fail on message send to {}: {}", id, e);
+            closeNow(id, connection, CloseStatus.SERVER_ERROR);
+            return false;
+        }
+    }
+
+    private void closeNow(Long id, @NotNull OutboundConnection connection, @NotNull CloseStatus status) {
+        try {
+            if (connection.isOpen()) {
+                connection.getSession().close(status);
+            }
+        } catch (IOException e) {
+            log.error("Error on session closing: {}", e);
+        } finally {
+            flushSession(id, connection);
+        }
+    }
+
+    private void flushSession(Long id, @NotNull OutboundConnection connection) {
+        sessions.remove(id, connection);
+    }
 }
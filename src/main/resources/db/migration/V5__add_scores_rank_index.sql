@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS scores_rank_idx ON scores (score DESC, id ASC);
@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS user_stats (
+  user_id      INTEGER PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+  best_score   INTEGER                  NOT NULL DEFAULT 0,
+  games_played INTEGER                  NOT NULL DEFAULT 0,
+  total_score  BIGINT                   NOT NULL DEFAULT 0,
+  last_played  TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS scores_user_idx
+  ON scores (user_id);
+
+-- Scores up to the watermark predate user_stats and are added by the backfill job,
+-- later ones are added by the score writers.
+CREATE TABLE IF NOT EXISTS user_stats_backfill (
+  id              INTEGER PRIMARY KEY,
+  score_watermark INTEGER NOT NULL,
+  last_user_id    INTEGER NOT NULL DEFAULT 0,
+  done            BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+INSERT INTO user_stats_backfill (id, score_watermark)
+  SELECT 1, COALESCE(MAX(id), 0)
+  FROM scores;
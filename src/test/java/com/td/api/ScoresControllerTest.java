@@ -1,9 +1,12 @@
 package com.td.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.daos.Leaderboard;
+import com.td.daos.LeaderboardEntry;
 import com.td.daos.ScoresDao;
 import com.td.daos.UserDao;
 import com.td.domain.User;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -20,6 +23,7 @@ import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -36,11 +40,16 @@ public class ScoresControllerTest {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private Leaderboard leaderboard;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     private final List<User> users = new ArrayList<>();
 
+    private final List<Long> leaderboardScores = new ArrayList<>();
+
     @Before
     public void init() {
         for (int i = 100; i < 120; ++i) {
@@ -52,6 +61,16 @@ public class ScoresControllerTest {
 
     }
 
+    @After
+    public void cleanLeaderboard() {
+        leaderboardScores.forEach(leaderboard::remove);
+    }
+
+    private void addToLeaderboard(long scoreId, int score, User user) {
+        leaderboardScores.add(scoreId);
+        leaderboard.add(new LeaderboardEntry(scoreId, score, user.getId()));
+    }
+
     @Test
     public void testGetScoresList() throws Exception {
         users.forEach(user -> scoresDao.addScores(user, Integer.valueOf(user.getNickname())));
@@ -59,5 +78,36 @@ public class ScoresControllerTest {
                 .andExpect(jsonPath("scores").isArray());
     }
 
+    @Test
+    public void testGetRank() throws Exception {
+        User best = users.get(0);
+        User second = users.get(1);
+        addToLeaderboard(-1L, Integer.MAX_VALUE, best);
+        addToLeaderboard(-2L, Integer.MAX_VALUE - 1, second);
+        addToLeaderboard(-3L, 0, second);
+
+        mockMvc.perform(get("/api/scores/rank/" + second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("rank").value(2))
+                .andExpect(jsonPath("scores").value(Integer.MAX_VALUE - 1))
+                .andExpect(jsonPath("nickname").value(second.getNickname()));
+        mockMvc.perform(get("/api/scores/page/2"))
+                .andExpect(jsonPath("scores[0].nickname").value(best.getNickname()))
+                .andExpect(jsonPath("scores[1].scoreId").value(-2));
+        mockMvc.perform(get("/api/scores/rank/" + users.get(2).getId()))
+                .andExpect(status().isNotFound());
+
+        leaderboard.remove(-2L);
+        mockMvc.perform(get("/api/scores/rank/" + second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("scores").value(0));
+
+        leaderboard.removeUser(second.getId());
+        mockMvc.perform(get("/api/scores/rank/" + second.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/scores/rank/" + best.getId()))
+                .andExpect(jsonPath("total").value(leaderboard.size()));
+    }
+
 
 }
@@ -0,0 +1,110 @@
+package com.td.daos;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RankedSkipListTest {
+
+    private static final int OPERATIONS = 5000;
+    private static final int MAX_SCORE = 50;
+    private static final int PAGE = 7;
+
+    private RankedSkipList<LeaderboardEntry> list;
+    private List<LeaderboardEntry> expected;
+    private Random random;
+    private long nextScoreId;
+
+    @Before
+    public void setUp() {
+        list = new RankedSkipList<>(LeaderboardEntry.ORDER);
+        expected = new ArrayList<>();
+        random = new Random(1);
+        nextScoreId = 0;
+    }
+
+    private LeaderboardEntry entry(int score) {
+        return new LeaderboardEntry(nextScoreId++, score, 1L);
+    }
+
+    private void add(LeaderboardEntry entry) {
+        list.add(entry);
+        int position = Collections.binarySearch(expected, entry, LeaderboardEntry.ORDER);
+        expected.add(-position - 1, entry);
+    }
+
+    private void remove(LeaderboardEntry entry) {
+        assertTrue(list.remove(entry));
+        expected.remove(entry);
+    }
+
+    private void assertSameRanking() {
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(i + 1, list.rank(expected.get(i)));
+        }
+        assertEquals(expected.subList(0, Math.min(PAGE, expected.size())), list.head(PAGE));
+    }
+
+    @Test
+    public void testRanksAfterInsertRemoveAndUpdate() {
+        for (int op = 0; op < OPERATIONS; ++op) {
+            final int choice = random.nextInt(4);
+            if (expected.isEmpty() || choice < 2) {
+                add(entry(random.nextInt(MAX_SCORE)));
+            } else if (choice == 2) {
+                remove(expected.get(random.nextInt(expected.size())));
+            } else {
+                final LeaderboardEntry updated = expected.get(random.nextInt(expected.size()));
+                remove(updated);
+                add(new LeaderboardEntry(updated.getScoreId(), random.nextInt(MAX_SCORE), updated.getUserId()));
+            }
+            if (op % 100 == 0) {
+                assertSameRanking();
+            }
+        }
+        assertSameRanking();
+
+        while (!expected.isEmpty()) {
+            remove(expected.get(random.nextInt(expected.size())));
+            assertEquals(expected.size(), list.size());
+        }
+        assertSameRanking();
+        add(entry(1));
+        assertSameRanking();
+    }
+
+    @Test
+    public void testAbsentValues() {
+        final LeaderboardEntry added = entry(10);
+        add(added);
+        final LeaderboardEntry absent = entry(10);
+
+        assertEquals(0, list.rank(absent));
+        assertFalse(list.remove(absent));
+        assertEquals(1, list.size());
+        assertEquals(1, list.rank(added));
+    }
+
+    @Test
+    public void testAfter() {
+        for (int i = 0; i < 20; ++i) {
+            add(entry(random.nextInt(MAX_SCORE)));
+        }
+        for (int i = 0; i < expected.size(); ++i) {
+            final int to = Math.min(expected.size(), i + 1 + PAGE);
+            assertEquals(expected.subList(i + 1, to), list.after(expected.get(i), PAGE));
+        }
+        final LeaderboardEntry removed = expected.get(5);
+        remove(removed);
+        assertEquals(expected.subList(5, 5 + PAGE), list.after(removed, PAGE));
+    }
+}
@@ -2,6 +2,7 @@ package com.td.daos;
 
 import com.td.domain.Score;
 import com.td.domain.User;
+import com.td.domain.UserStats;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,6 +30,9 @@ public class ScoresDaoTest {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private UserStatsDao userStatsDao;
+
     private Long testUID;
 
     @Before
@@ -53,6 +57,20 @@ public class ScoresDaoTest {
         assertEquals(100, sameScores.get(0).getScore());
     }
 
+    @Test
+    public void testUserStatsUpdate() {
+        User user = userDao.getUserById(testUID);
+        assertEquals(0, userStatsDao.getStats(testUID).getGamesPlayed());
+        scoresDao.addScores(user, 100);
+        scoresDao.addScores(user, 300);
+        scoresDao.addScores(user, 200);
+        UserStats stats = userStatsDao.getStats(testUID);
+        assertEquals(300, stats.getBestScore());
+        assertEquals(3, stats.getGamesPlayed());
+        assertEquals(600, stats.getTotalScore());
+        assertNotNull(stats.getLastPlayed());
+    }
+
     @Test
     public void testScoresListGet() {
         List<String> names = new ArrayList<>();
@@ -30,6 +30,9 @@ public class UserDaoTest {
     @Autowired
     private UserDao dao;
 
+    @Autowired
+    private UserCache cache;
+
     private List<String> uuids;
 
     static final private String EMAIL_SUFFIX = "@mail.ru";
@@ -223,5 +226,19 @@ public class UserDaoTest {
         dao.updateUserEmail(dao.getUserByNickname(str), uuids.get(1) + EMAIL_SUFFIX);
     }
 
+    @Test
+    public void testUserCacheInvalidation() {
+        User user = dao.getUserByNickname(uuids.get(0));
+        UserView view = cache.getUser(user.getId());
+        assertNotNull(view);
+        assertEquals(uuids.get(0), view.getNickname());
+        assertEquals(DEFAULT_GAME_CLASS, view.getGameClass());
+        assertSame(view, cache.getUser(user.getId()));
 
+        dao.updateUserNickname(user, "renamed");
+        assertEquals("renamed", cache.getUser(user.getId()).getNickname());
+
+        dao.removeUser(user);
+        assertNull(cache.getUser(user.getId()));
+    }
 }
@@ -0,0 +1,76 @@
+package com.td.game;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FixedRateTickSchedulerTest {
+
+    private static final long PERIOD_MS = 100;
+    private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(PERIOD_MS);
+
+    private TickStats stats;
+
+    @Before
+    public void setUp() {
+        stats = new TickStats();
+    }
+
+    @Test
+    public void testKeepsRateWhenOnTime() {
+        FixedRateTickScheduler scheduler = new FixedRateTickScheduler(PERIOD_MS, 1, stats);
+        long started = System.nanoTime();
+        scheduler.start();
+        for (int tick = 1; tick <= 3; ++tick) {
+            assertEquals(PERIOD_MS, scheduler.awaitNextTick());
+            assertTrue(System.nanoTime() - started >= tick * PERIOD_NANOS);
+        }
+        assertEquals(3, stats.getTicks());
+        assertEquals(0, stats.getOverruns());
+        assertEquals(0, stats.getSkippedTicks());
+    }
+
+    @Test
+    public void testCatchesUpMissedTicksWithoutWaiting() throws InterruptedException {
+        FixedRateTickScheduler scheduler = new FixedRateTickScheduler(PERIOD_MS, 10, stats);
+        long started = System.nanoTime();
+        scheduler.start();
+        Thread.sleep(PERIOD_MS * 3 + PERIOD_MS / 2);
+
+        long late = System.nanoTime();
+        for (int tick = 0; tick < 3; ++tick) {
+            scheduler.awaitNextTick();
+        }
+        assertTrue(System.nanoTime() - late < PERIOD_NANOS / 2);
+        assertEquals(3, stats.getOverruns());
+        assertEquals(0, stats.getSkippedTicks());
+
+        scheduler.awaitNextTick();
+        assertTrue(System.nanoTime() - started >= 4 * PERIOD_NANOS);
+        assertEquals(4, stats.getTicks());
+        assertEquals(3, stats.getOverruns());
+    }
+
+    @Test
+    public void testSkipsTicksBeyondCatchUpLimit() throws InterruptedException {
+        FixedRateTickScheduler scheduler = new FixedRateTickScheduler(PERIOD_MS, 1, stats);
+        long started = System.nanoTime();
+        scheduler.start();
+        Thread.sleep(PERIOD_MS * 5 + PERIOD_MS / 2);
+
+        scheduler.awaitNextTick();
+        assertEquals(3, stats.getSkippedTicks());
+        scheduler.awaitNextTick();
+        assertEquals(2, stats.getOverruns());
+
+        scheduler.awaitNextTick();
+        assertTrue(System.nanoTime() - started >= 6 * PERIOD_NANOS);
+        assertEquals(3, stats.getTicks());
+        assertEquals(2, stats.getOverruns());
+        assertEquals(3, stats.getSkippedTicks());
+    }
+}
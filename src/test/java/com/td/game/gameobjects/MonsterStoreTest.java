@@ -0,0 +1,247 @@
+package com.td.game.gameobjects;
+
+import com.td.game.domain.PathPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the store side by side with a per-object model of the monsters, the way they were kept before the store.
+ */
+public class MonsterStoreTest {
+
+    private static final long DELTA = 50;
+    private static final int MONSTERS = 24;
+    private static final int ENTER_EVERY = 3;
+    private static final int KILL_EVERY = 7;
+    private static final int MAX_TICKS = 1000;
+
+    private List<Path> paths;
+    private List<Monster> monsters;
+    private List<Reference> references;
+
+    /**
+     * The monster as it was before the store: its own fields and the same movement arithmetic.
+     */
+    private static final class Reference {
+        private final Monster monster;
+        private final Path path;
+        private final double speed;
+        private int hp;
+        private PathPoint coord;
+        private double relx;
+        private double rely;
+        private int vx;
+        private int vy;
+
+        Reference(Monster monster, Path path, int hp, double speed) {
+            this.monster = monster;
+            this.path = path;
+            this.hp = hp;
+            this.speed = speed;
+            setCoord(path.getInitalPoint());
+        }
+
+        void setCoord(PathPoint point) {
+            coord = point;
+            vx = point.getDirections().getXcoord();
+            vy = point.getDirections().getYcoord();
+        }
+
+        void move(long delta) {
+            final PathPoint next = path.getPathPoints().get(coord.getIndex() + 1);
+            double newx = relx + delta * vx * speed;
+            double newy = rely + delta * vy * speed;
+            if (vx != 0 && Math.abs(newx) >= 1) {
+                newx += newx <= -1 ? 1 : -1;
+                setCoord(next);
+            } else if (vy != 0 && Math.abs(newy) >= 1) {
+                newy += newy <= -1 ? 1 : -1;
+                setCoord(next);
+            }
+            relx = newx;
+            rely = newy;
+        }
+    }
+
+    private static Path path(PathPoint... points) {
+        return new Path(new Path.PathResource(Arrays.asList(points)));
+    }
+
+    @Before
+    public void setUp() {
+        final List<PathPoint> right = new ArrayList<>();
+        for (int x = 0; x < 6; ++x) {
+            right.add(new PathPoint(x, 0, 0, 1, 0, right.size()));
+        }
+        for (int y = 0; y < 4; ++y) {
+            right.add(new PathPoint(6, y, 0, 0, 1, right.size()));
+        }
+        final List<PathPoint> left = new ArrayList<>();
+        for (int x = 9; x > 2; --x) {
+            left.add(new PathPoint(x, 8, 0, -1, 0, left.size()));
+        }
+        paths = Arrays.asList(path(right.toArray(new PathPoint[0])), path(left.toArray(new PathPoint[0])));
+
+        monsters = new ArrayList<>();
+        references = new ArrayList<>();
+        for (int i = 0; i < MONSTERS; ++i) {
+            final int hp = 10 + i;
+            final int speed = 4 + (i * 5) % 11;
+            final Monster monster = new Monster(new Monster.MonsterResource(hp, speed, 1 + i % 3, 1, 1));
+            final Path bound = paths.get(i % 2);
+            monster.setCoord(bound.getInitalPoint());
+            monsters.add(monster);
+            references.add(new Reference(monster, bound, hp, speed * 0.001));
+        }
+    }
+
+    private MonsterStore fill() {
+        final MonsterStore store = new MonsterStore(MONSTERS, paths);
+        for (int i = MONSTERS - 1; i >= 0; --i) {
+            store.addPending(monsters.get(i), i % 2);
+        }
+        return store;
+    }
+
+    @Test
+    public void testSegments() {
+        final MonsterStore store = fill();
+        assertEquals(MONSTERS, store.getPendingCount());
+        assertSame(monsters.get(0), store.getPending(0));
+
+        assertSame(monsters.get(0), store.startNext());
+        assertSame(monsters.get(1), store.startNext());
+        assertSame(monsters.get(2), store.startNext());
+        assertEquals(MONSTERS - 3, store.getPendingCount());
+        assertEquals(3, store.getRunningCount());
+        assertSame(monsters.get(3), store.getPending(0));
+
+        assertFalse(store.pass(monsters.get(3)));
+        assertTrue(store.pass(monsters.get(1)));
+        assertFalse(store.pass(monsters.get(1)));
+        assertSameMonsters(Arrays.asList(monsters.get(0), monsters.get(2)), store.getRunningCount(), store::getRunning);
+
+        monsters.get(0).setHp(0);
+        store.passDead();
+        assertSameMonsters(Arrays.asList(monsters.get(2)), store.getRunningCount(), store::getRunning);
+        assertSame(monsters.get(2), store.getRunningByEntry(0));
+        assertSameMonsters(Arrays.asList(monsters.get(1), monsters.get(0)), store.getPassedCount(), store::getPassed);
+        assertEquals(0, monsters.get(0).getHp());
+        assertEquals(12, monsters.get(2).getHp());
+    }
+
+    @Test
+    public void testMatchesPerObjectMonsters() {
+        final MonsterStore store = fill();
+        final Deque<Reference> pending = new ArrayDeque<>(references);
+        final List<Reference> running = new ArrayList<>();
+        final List<Reference> passed = new ArrayList<>();
+        int arrived = 0;
+        int killed = 0;
+
+        for (int tick = 0; tick < MAX_TICKS && passed.size() < MONSTERS; ++tick) {
+            if (tick % ENTER_EVERY == 0 && !pending.isEmpty()) {
+                assertSame(pending.peekFirst().monster, store.startNext());
+                running.add(pending.pollFirst());
+            }
+
+            int weight = 0;
+            for (int i = 0; i < running.size(); ++i) {
+                final Reference reference = running.get(i);
+                if (reference.coord.equals(reference.path.getLastPoint())) {
+                    weight += reference.monster.getWeight();
+                    passed.add(running.remove(i--));
+                    ++arrived;
+                }
+            }
+            assertEquals(weight, store.passArrived());
+
+            if (tick % KILL_EVERY == 0 && !running.isEmpty()) {
+                final Reference victim = running.get(tick % running.size());
+                victim.hp = 0;
+                victim.monster.setHp(0);
+                ++killed;
+            }
+            for (int i = 0; i < running.size(); ++i) {
+                if (running.get(i).hp <= 0) {
+                    passed.add(running.remove(i--));
+                }
+            }
+            store.passDead();
+
+            running.forEach(reference -> reference.move(DELTA));
+            store.moveRunning(DELTA);
+
+            assertSameState(pending.size(), running, passed, store);
+        }
+        assertEquals(MONSTERS, passed.size());
+        assertTrue(arrived > 0);
+        assertTrue(killed > 0);
+    }
+
+    /**
+     * Slots are swapped on every status change, so segments are compared regardless of order.
+     */
+    private static void assertSameMonsters(List<Monster> expected, int count, IntFunction<Monster> segment) {
+        assertEquals(expected.size(), count);
+        final Set<Monster> actual = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < count; ++i) {
+            actual.add(segment.apply(i));
+        }
+        expected.forEach(monster -> assertTrue(actual.contains(monster)));
+    }
+
+    private void assertSameState(int pending, List<Reference> running, List<Reference> passed, MonsterStore store) {
+        assertEquals(pending, store.getPendingCount());
+        assertEquals(running.size(), store.getRunningCount());
+        final Map<Monster, Reference> byMonster = new IdentityHashMap<>();
+        running.forEach(reference -> byMonster.put(reference.monster, reference));
+        for (int i = 0; i < running.size(); ++i) {
+            final Monster monster = store.getRunning(i);
+            final Reference reference = byMonster.get(monster);
+            assertSame(reference.monster, monster);
+            assertEquals(reference.hp, monster.getHp());
+            assertEquals(reference.coord, monster.getCoord());
+            assertEquals(reference.coord.getIndex().intValue(), monster.getPathIndex());
+            assertEquals(reference.relx, monster.getSnapshot().getRelativeCoord().getXcoord(), 0);
+            assertEquals(reference.rely, monster.getSnapshot().getRelativeCoord().getYcoord(), 0);
+        }
+        for (int i = 0; i < running.size(); ++i) {
+            assertSame(running.get(i).monster, store.getRunningByEntry(i));
+        }
+        final List<Monster> passedMonsters = new ArrayList<>();
+        passed.forEach(reference -> passedMonsters.add(reference.monster));
+        assertSameMonsters(passedMonsters, store.getPassedCount(), store::getPassed);
+        assertOrderedByPath(store);
+    }
+
+    private void assertOrderedByPath(MonsterStore store) {
+        int ranged = 0;
+        for (int pathId = 0; pathId < paths.size(); ++pathId) {
+            final int from = store.getRunningFrom(pathId);
+            final int to = store.getRunningTo(pathId);
+            for (int slot = from; slot < to; ++slot) {
+                assertEquals(pathId, store.getPath(slot));
+                assertTrue(slot == from || store.getProgress(slot - 1) >= store.getProgress(slot));
+            }
+            ranged += to - from;
+        }
+        assertEquals(store.getRunningCount(), ranged);
+    }
+}
@@ -0,0 +1,67 @@
+package com.td.game.snapshots;
+
+import com.td.game.domain.Wave;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class SnapshotHistoryTest {
+
+    private static final long INTERVAL = 20;
+    private static final Long PLAYER = 1L;
+
+    private static SnapshotHistory.Keyframe keyframe(long frame, int waveNumber) {
+        Wave wave = new Wave(Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), 0, 0);
+        ServerSnap snap = ServerSnap.builder()
+                .setWaveNumber(waveNumber)
+                .setTowersSnap(Collections.emptyList())
+                .setCurrentWaveSnap(new Wave.WaveSnapshot(wave))
+                .build();
+        return new SnapshotHistory.Keyframe(frame, snap);
+    }
+
+    @Test
+    public void testKeepsLastKeyframesWithIntervalDivisibleByCapacity() {
+        SnapshotHistory history = new SnapshotHistory();
+        for (long frame = 0; frame <= 4 * INTERVAL; frame += INTERVAL) {
+            history.addKeyframe(keyframe(frame, 1));
+        }
+
+        for (long frame = INTERVAL; frame <= 4 * INTERVAL; frame += INTERVAL) {
+            history.acknowledge(PLAYER, frame);
+            SnapshotHistory.Keyframe acked = history.getAcknowledgedKeyframe(PLAYER);
+            assertNotNull(acked);
+            assertEquals(frame, acked.getFrame());
+        }
+
+        history.resync(PLAYER);
+        history.acknowledge(PLAYER, 0);
+        assertNull(history.getAcknowledgedKeyframe(PLAYER));
+    }
+
+    @Test
+    public void testIgnoresAcknowledgeOfUnsentFrame() {
+        SnapshotHistory history = new SnapshotHistory();
+        history.addKeyframe(keyframe(0, 1));
+        history.acknowledge(PLAYER, INTERVAL);
+        assertNull(history.getAcknowledgedKeyframe(PLAYER));
+
+        history.acknowledge(PLAYER, 0);
+        history.addKeyframe(keyframe(INTERVAL, 1));
+        history.acknowledge(PLAYER, INTERVAL);
+        assertEquals(INTERVAL, history.getAcknowledgedKeyframe(PLAYER).getFrame());
+    }
+
+    @Test
+    public void testDropsKeyframesOfPreviousWave() {
+        SnapshotHistory history = new SnapshotHistory();
+        history.addKeyframe(keyframe(0, 1));
+        history.acknowledge(PLAYER, 0);
+        history.addKeyframe(keyframe(1, 2));
+        assertNull(history.getAcknowledgedKeyframe(PLAYER));
+    }
+}
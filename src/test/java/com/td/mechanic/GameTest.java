@@ -1,6 +1,7 @@
 package com.td.mechanic;
 
 import com.td.daos.UserDao;
+import com.td.daos.UserView;
 import com.td.domain.User;
 import com.td.game.GameContext;
 import com.td.game.GameSession;
@@ -10,10 +11,12 @@ import com.td.game.gameobjects.Path;
 import com.td.game.gameobjects.Tower;
 import com.td.game.resource.ResourceFactory;
 import com.td.game.services.*;
+import com.td.websocket.TransportService;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -21,7 +24,6 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.concurrent.locks.StampedLock;
 
 import static org.junit.Assert.*;
 
@@ -48,17 +50,22 @@ public class GameTest {
     @Autowired
     private UserDao dao;
 
+    @Autowired
+    private TransportService transport;
+
     private GameContext context;
 
     @Before
     public void initialize() {
-        context = new GameContext(new StampedLock());
+        context = new GameContext();
         User us1 = dao.createUser("us1", "us1@mail.ru", "uuuuu", "Adventurer");
         User us2 = dao.createUser("us2", "us2@mail.ru", "uuuuu", "Adventurer");
-        Set<User> users = new HashSet<>();
-        users.add(us1);
-        users.add(us2);
-        gameSessionService.startGame(users, context);
+        Set<UserView> users = new HashSet<>();
+        users.add(UserView.of(us1));
+        users.add(UserView.of(us2));
+        Mockito.when(transport.isConnected(us1.getId())).thenReturn(true);
+        Mockito.when(transport.isConnected(us2.getId())).thenReturn(true);
+        assertTrue(gameSessionService.startGame(users, context));
     }
 
     @After
@@ -5,7 +5,9 @@ import com.td.game.domain.GameMap;
 import com.td.game.domain.PlayerClass;
 import com.td.game.domain.Point;
 import com.td.game.gameobjects.Monster;
+import com.td.game.resource.ResourceException;
 import com.td.game.resource.ResourceFactory;
+import com.td.game.resource.ResourceSnapshot;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,10 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RunWith(SpringRunner.class)
@@ -55,4 +61,32 @@ public class ResourceSystemTest {
         assertNotNull(mr);
         assertEquals(3, mr.size());
     }
+
+    @Test
+    public void testResourceCaching() {
+        Monster.MonsterResource first = resourceFactory.loadResource("monsters/RedMonster.json", Monster.MonsterResource.class);
+        long hits = resourceFactory.getStats().getHits();
+        assertSame(first, resourceFactory.loadResource("monsters/RedMonster.json", Monster.MonsterResource.class));
+        assertEquals(hits + 1, resourceFactory.getStats().getHits());
+
+        resourceFactory.reload();
+        Monster.MonsterResource reloaded = resourceFactory.loadResource("monsters/RedMonster.json", Monster.MonsterResource.class);
+        assertNotSame(first, reloaded);
+        assertSame(reloaded, resourceFactory.loadResource("monsters/RedMonster.json", Monster.MonsterResource.class));
+    }
+
+    @Test
+    public void testSupersededSnapshotRefusesNewResources() {
+        ResourceSnapshot old = resourceFactory.getSnapshot();
+        Monster.MonsterResource red = old.loadResource("monsters/RedMonster.json", Monster.MonsterResource.class);
+
+        resourceFactory.reload();
+        assertSame(red, old.loadResource("monsters/RedMonster.json", Monster.MonsterResource.class));
+        try {
+            old.loadResource("monsters/NotLoaded.json", Monster.MonsterResource.class);
+            fail();
+        } catch (ResourceException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
 }
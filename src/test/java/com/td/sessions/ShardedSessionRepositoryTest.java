@@ -0,0 +1,81 @@
+package com.td.sessions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ShardedSessionRepositoryTest {
+
+    private static final Duration MAX_INACTIVE = Duration.ofMinutes(30);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private ShardedSessionRepository createRepository(boolean offHeap, String snapshot) {
+        ShardedSessionRepository repository = new ShardedSessionRepository(4, MAX_INACTIVE, 1000, 64, offHeap, snapshot, 0);
+        repository.start();
+        return repository;
+    }
+
+    @Test
+    public void testSaveAndChangeId() throws Exception {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ShardedSessionRepository repository = createRepository(offHeap, null);
+            MapSession session = repository.createSession();
+            session.setAttribute("user", 1L);
+            repository.save(session);
+
+            MapSession found = repository.findById(session.getId());
+            assertNotNull(found);
+            assertEquals(1L, (long) found.getAttribute("user"));
+            found.setAttribute("user", 2L);
+            assertEquals(1L, (long) repository.findById(session.getId()).getAttribute("user"));
+
+            String oldId = found.getId();
+            found.changeSessionId();
+            repository.save(found);
+            assertNull(repository.findById(oldId));
+            assertEquals(2L, (long) repository.findById(found.getId()).getAttribute("user"));
+
+            repository.deleteById(found.getId());
+            assertNull(repository.findById(found.getId()));
+            assertEquals(0, repository.size());
+            repository.shutdown();
+        }
+    }
+
+    @Test
+    public void testExpiredSessionIsNotFound() throws Exception {
+        ShardedSessionRepository repository = createRepository(false, null);
+        MapSession session = repository.createSession();
+        session.setLastAccessedTime(Instant.now().minus(MAX_INACTIVE).plusMillis(100));
+        repository.save(session);
+        assertNotNull(repository.findById(session.getId()));
+        Thread.sleep(200);
+        assertNull(repository.findById(session.getId()));
+        repository.shutdown();
+    }
+
+    @Test
+    public void testSnapshotRestore() throws Exception {
+        String snapshot = folder.getRoot().toPath().resolve("sessions.snapshot").toString();
+        ShardedSessionRepository repository = createRepository(true, snapshot);
+        MapSession session = repository.createSession();
+        session.setAttribute("user", 1L);
+        repository.save(session);
+        repository.shutdown();
+
+        ShardedSessionRepository restored = createRepository(false, snapshot);
+        assertEquals(1, restored.size());
+        assertEquals(1L, (long) restored.findById(session.getId()).getAttribute("user"));
+        restored.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package com.td.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.game.domain.Player;
+import com.td.game.domain.Wave;
+import com.td.game.snapshots.JoinGameMessage;
+import com.td.game.snapshots.ServerSnap;
+import org.junit.Test;
+import org.springframework.web.socket.BinaryMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BinaryMessageCodecTest {
+
+    private static final String NICKNAME = "\u041d\u0438\u043a\u0430 \ud83d\udc09 \u0000";
+    private static final String PLAYER_CLASS = "Mage";
+    private static final long FRAME = 42;
+    private static final int HP = 100;
+    private static final int WAVE = 3;
+
+    private final BinaryMessageCodec codec = new BinaryMessageCodec(new JsonMessageCodec(new ObjectMapper()));
+
+    private static String readString(ByteBuffer in) {
+        final byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testStateRoundTrip() throws Exception {
+        Player player = new Player(1L, PLAYER_CLASS, NICKNAME);
+        Wave wave = new Wave(Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), 0, 0);
+        ServerSnap snap = ServerSnap.builder()
+                .setFrame(FRAME)
+                .setHp(HP)
+                .setWaveNumber(WAVE)
+                .setPlayersSnap(Collections.singletonList(player.getSnapshot()))
+                .setCurrentWaveSnap(new Wave.WaveSnapshot(wave))
+                .setTowersSnap(Collections.emptyList())
+                .setShotEvents(Collections.emptyList())
+                .build();
+
+        ByteBuffer in = ((BinaryMessage) codec.encode(snap)).getPayload();
+        assertEquals(BinaryMessageCodec.STATE, in.get());
+        assertEquals(FRAME, in.getLong());
+        assertEquals(HP, in.getInt());
+        assertEquals(WAVE, in.getShort());
+        assertEquals(1, in.getShort());
+        assertEquals(1, in.getInt());
+        assertEquals(player.getSnapshot().getMoney(), in.getLong());
+        assertEquals(0, in.getInt());
+        assertEquals(PLAYER_CLASS, readString(in));
+        assertEquals(NICKNAME, readString(in));
+
+        in.get();
+        in.getInt();
+        for (int list = 0; list < 5; ++list) {
+            assertEquals(0, in.getShort());
+        }
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    public void testJoinRoundTrip() throws Exception {
+        byte[] hash = NICKNAME.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + Short.BYTES + hash.length);
+        payload.put(BinaryMessageCodec.JOIN).putShort((short) hash.length).put(hash).flip();
+
+        JoinGameMessage join = (JoinGameMessage) codec.decode(new BinaryMessage(payload));
+        assertEquals(NICKNAME, join.getMapHash());
+    }
+}